@@ -0,0 +1,248 @@
+package com.nasa.benchmark;
+
+import com.nasa.controller.NasaTransport;
+import com.nasa.controller.RequestCoalescer;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Checks RequestCoalescer against a local stub that counts what reaches it: concurrent
+// identical sends must cost the server one hit, callers that give up must not disturb the
+// ones still waiting, and once every caller has cancelled the exchange must be aborted.
+// Exits with status 1 if any check fails.
+//   mvn -Pbenchmark test-compile exec:exec -Dbench.main=com.nasa.benchmark.CoalescingHarness -Djmh.args=
+public class CoalescingHarness {
+    private static final int CALLERS = 64;
+    private static final int SERVER_LATENCY_MILLIS = 300;
+    // The cancelled exchange is held this long and then streamed slowly, so an abort shows up
+    private static final int SLOW_LATENCY_MILLIS = 1000;
+    private static final int SLOW_CHUNKS = 50;
+
+    private static int failures;
+
+    public static void main(String[] args) throws Exception {
+        try (Stub stub = new Stub()) {
+            concurrentSends(stub);
+            someCallersCancel(stub);
+            everyCallerCancels(stub);
+        }
+        System.out.println(failures == 0 ? "All checks passed" : failures + " checks failed");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    private static void concurrentSends(Stub stub) throws Exception {
+        NasaTransport transport = new NasaTransport();
+        RequestCoalescer coalescer = new RequestCoalescer(transport);
+        int before = stub.hits.get();
+        List<CompletableFuture<HttpResponse<String>>> calls = startTogether(coalescer, transport, stub.url("/fast"));
+        int ok = 0;
+        for (CompletableFuture<HttpResponse<String>> call : calls) {
+            if (call.get(10, TimeUnit.SECONDS).statusCode() == 200) {
+                ok++;
+            }
+        }
+        System.out.printf("%d concurrent identical sends: %d ok, %d server hits, %d sent, %d coalesced%n",
+            CALLERS, ok, stub.hits.get() - before, coalescer.getSentCount(), coalescer.getCoalescedCount());
+        check("every caller gets the response", ok == CALLERS);
+        check("the server sees a single hit", stub.hits.get() - before == 1);
+        check("nothing is left in flight", coalescer.getInFlightCount() == 0);
+        transport.shutdown();
+    }
+
+    private static void someCallersCancel(Stub stub) throws Exception {
+        NasaTransport transport = new NasaTransport();
+        RequestCoalescer coalescer = new RequestCoalescer(transport);
+        int before = stub.hits.get();
+        List<CompletableFuture<HttpResponse<String>>> calls = startTogether(coalescer, transport, stub.url("/fast"));
+        for (int i = 0; i < calls.size(); i += 2) {
+            calls.get(i).cancel(true);
+        }
+        int ok = 0;
+        for (int i = 1; i < calls.size(); i += 2) {
+            if (calls.get(i).get(10, TimeUnit.SECONDS).statusCode() == 200) {
+                ok++;
+            }
+        }
+        System.out.printf("half of %d callers cancel: %d of the rest ok, %d server hits, %d aborted%n",
+            CALLERS, ok, stub.hits.get() - before, coalescer.getAbortedCount());
+        check("the remaining callers still get the response", ok == CALLERS / 2);
+        check("the shared exchange is not aborted", coalescer.getAbortedCount() == 0);
+        transport.shutdown();
+    }
+
+    private static void everyCallerCancels(Stub stub) throws Exception {
+        NasaTransport transport = new NasaTransport();
+        RequestCoalescer coalescer = new RequestCoalescer(transport);
+        int hitsBefore = stub.hits.get();
+        int abortedBefore = stub.aborted.get();
+        List<CompletableFuture<HttpResponse<String>>> calls = startTogether(coalescer, transport, stub.url("/slow"));
+        // Let the request reach the server before everyone gives up
+        stub.awaitHit(hitsBefore + 1, 5, TimeUnit.SECONDS);
+        int cancelled = 0;
+        for (CompletableFuture<HttpResponse<String>> call : calls) {
+            call.cancel(true);
+            try {
+                call.join();
+            } catch (CancellationException e) {
+                cancelled++;
+            }
+        }
+        boolean serverSawAbort = stub.awaitAbort(abortedBefore + 1, 10, TimeUnit.SECONDS);
+        System.out.printf("all %d callers cancel: %d cancelled, %d server hits, %d aborted by the coalescer, "
+                + "server saw the connection drop: %s%n",
+            CALLERS, cancelled, stub.hits.get() - hitsBefore, coalescer.getAbortedCount(), serverSawAbort);
+        check("every caller sees the cancellation", cancelled == CALLERS);
+        check("the exchange is aborted once", coalescer.getAbortedCount() == 1);
+        check("the server sees the exchange abandoned", serverSawAbort);
+        check("nothing is left in flight", coalescer.getInFlightCount() == 0);
+        transport.shutdown();
+    }
+
+    // All callers are released at once from their own threads, so they really race
+    private static List<CompletableFuture<HttpResponse<String>>> startTogether(RequestCoalescer coalescer,
+                                                                               NasaTransport transport, String url)
+            throws InterruptedException {
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(CALLERS);
+        List<CompletableFuture<HttpResponse<String>>> calls = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            calls.add(null);
+        }
+        for (int i = 0; i < CALLERS; i++) {
+            int index = i;
+            callers.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                CompletableFuture<HttpResponse<String>> call = coalescer.send(transport.request(url).build());
+                synchronized (calls) {
+                    calls.set(index, call);
+                }
+                started.countDown();
+            });
+        }
+        start.countDown();
+        started.await();
+        callers.shutdown();
+        synchronized (calls) {
+            return new ArrayList<>(calls);
+        }
+    }
+
+    private static void check(String description, boolean passed) {
+        System.out.println("  " + (passed ? "PASS " : "FAIL ") + description);
+        if (!passed) {
+            failures++;
+        }
+    }
+
+    // Counts every request that arrives. /fast answers after a short delay; /slow waits
+    // longer and then trickles its body out, counting the exchange as aborted when the
+    // client has gone away before the end.
+    private static final class Stub implements AutoCloseable {
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newFixedThreadPool(8);
+        private final AtomicInteger hits = new AtomicInteger();
+        private final AtomicInteger aborted = new AtomicInteger();
+
+        Stub() throws IOException {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.createContext("/fast", exchange -> {
+                arrived();
+                pause(SERVER_LATENCY_MILLIS);
+                respond(exchange, Fixtures.bytes("apod.json"));
+            });
+            server.createContext("/slow", exchange -> {
+                arrived();
+                pause(SLOW_LATENCY_MILLIS);
+                byte[] chunk = new byte[64 * 1024];
+                try {
+                    exchange.sendResponseHeaders(200, (long) chunk.length * SLOW_CHUNKS);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        for (int i = 0; i < SLOW_CHUNKS; i++) {
+                            out.write(chunk);
+                            out.flush();
+                            pause(20);
+                        }
+                    }
+                } catch (IOException e) {
+                    synchronized (this) {
+                        aborted.incrementAndGet();
+                        notifyAll();
+                    }
+                    exchange.close();
+                }
+            });
+            server.setExecutor(executor);
+            server.start();
+        }
+
+        String url(String path) {
+            return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+        }
+
+        private synchronized void arrived() {
+            hits.incrementAndGet();
+            notifyAll();
+        }
+
+        synchronized boolean awaitHit(int count, long timeout, TimeUnit unit) throws InterruptedException {
+            return await(hits, count, unit.toNanos(timeout));
+        }
+
+        synchronized boolean awaitAbort(int count, long timeout, TimeUnit unit) throws InterruptedException {
+            return await(aborted, count, unit.toNanos(timeout));
+        }
+
+        private boolean await(AtomicInteger counter, int count, long timeoutNanos) throws InterruptedException {
+            long deadline = System.nanoTime() + timeoutNanos;
+            while (counter.get() < count) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, left);
+            }
+            return true;
+        }
+
+        private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+
+        private static void pause(long millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+}
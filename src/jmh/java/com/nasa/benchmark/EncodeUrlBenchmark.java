@@ -0,0 +1,47 @@
+package com.nasa.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nasa.controller.ResponseParser;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// encodeUrl over every preview link of one Image Library result page
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncodeUrlBenchmark {
+    private List<String> links;
+
+    @Setup
+    public void setup() throws IOException {
+        links = new ArrayList<>();
+        JsonNode items = new ObjectMapper().readTree(Fixtures.text("library-search.json")).path("collection").path("items");
+        for (JsonNode item : items) {
+            links.add(item.path("links").path(0).path("href").asText());
+        }
+    }
+
+    @Benchmark
+    public void encodePage(Blackhole blackhole) {
+        for (String link : links) {
+            blackhole.consume(ResponseParser.encodeUrl(link));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.nasa.benchmark;
+
+import com.nasa.view.ImageDecoder;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// A full-disk EPIC sized image down to the image panel. The legacy path is what the view
+// did before ImageDecoder: decode at full size, then getScaledInstance(SCALE_SMOOTH),
+// drawn into a BufferedImage so the lazy scaling actually happens inside the benchmark.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ImageScalingBenchmark {
+    private static final int SOURCE_SIZE = 2048;
+    private static final int PANEL_WIDTH = 720;
+    private static final int PANEL_HEIGHT = 450;
+
+    @Param({"png", "jpg"})
+    public String format;
+
+    private byte[] data;
+
+    @Setup
+    public void setup() {
+        data = Fixtures.image(SOURCE_SIZE, SOURCE_SIZE, format);
+    }
+
+    @Benchmark
+    public BufferedImage legacyScaledInstance() throws IOException {
+        BufferedImage full = ImageIO.read(new ByteArrayInputStream(data));
+        Dimension target = ImageDecoder.fit(full.getWidth(), full.getHeight(), PANEL_WIDTH, PANEL_HEIGHT);
+        Image scaled = full.getScaledInstance(target.width, target.height, Image.SCALE_SMOOTH);
+        BufferedImage result = new BufferedImage(target.width, target.height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = result.createGraphics();
+        try {
+            g.drawImage(scaled, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return result;
+    }
+
+    @Benchmark
+    public BufferedImage subsampledDecode() throws IOException {
+        return ImageDecoder.decode(data, PANEL_WIDTH, PANEL_HEIGHT);
+    }
+
+    @Benchmark
+    public BufferedImage previewDecode() throws IOException {
+        return ImageDecoder.decodePreview(data, PANEL_WIDTH, PANEL_HEIGHT);
+    }
+}
@@ -0,0 +1,90 @@
+package com.nasa.benchmark;
+
+import com.nasa.AsyncLogHandler;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.FileHandler;
+import java.util.logging.Handler;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Cost of one LOGGER.info call on the calling thread, as the EDT or an HttpClient thread
+// would pay it: the JDK FileHandler the app used to install, against AsyncLogHandler when
+// the writer keeps up (block, which then runs at the writer's pace) and when it does not
+// (drop). Console echo is off for both.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingBenchmark {
+    @Param({"file", "async-block", "async-drop"})
+    public String handler;
+
+    private Path directory;
+    private Handler installed;
+    private Logger logger;
+    private long counter;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("nasa-log-bench");
+        switch (handler) {
+            case "file":
+                installed = new FileHandler(directory.resolve("file.log").toString(), true);
+                installed.setFormatter(new SimpleFormatter());
+                break;
+            case "async-block":
+                installed = new AsyncLogHandler(directory, "async.log", 64L * 1024 * 1024, 2, 8192,
+                    AsyncLogHandler.Overflow.BLOCK, false);
+                break;
+            default:
+                installed = new AsyncLogHandler(directory, "async.log", 64L * 1024 * 1024, 2, 8192,
+                    AsyncLogHandler.Overflow.DROP, false);
+                break;
+        }
+        logger = Logger.getLogger("com.nasa.benchmark.LoggingBenchmark." + handler);
+        logger.setUseParentHandlers(false);
+        logger.addHandler(installed);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        logger.removeHandler(installed);
+        installed.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void info() {
+        logger.info("Disk cache hit for https://api.nasa.gov/planetary/apod?date=2024-03-" + (counter++ & 31));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void infoFourThreads() {
+        logger.info("Disk cache hit for https://api.nasa.gov/planetary/apod");
+    }
+}
@@ -0,0 +1,108 @@
+package com.nasa.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nasa.controller.NeoFeedParser;
+import com.nasa.model.NeoApproach;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Streaming NEO feed parser against the old readTree + String.format rendering, on a
+// full 7-day feed. The firstRow benchmarks measure how long until the first asteroid can
+// be shown: the streaming parser stops after one row, the tree has to read everything.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NeoFeedBenchmark {
+    private static final RuntimeException STOP = new RuntimeException("first row", null, false, false) {
+    };
+
+    private ObjectMapper objectMapper;
+    private NeoFeedParser parser;
+    private byte[] feed;
+    private String feedText;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper();
+        parser = new NeoFeedParser(objectMapper.getFactory());
+        feed = Fixtures.bytes("neo-feed-week.json");
+        feedText = new String(feed, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public int streaming(Blackhole blackhole) throws IOException {
+        return parser.parse(new ByteArrayInputStream(feed), blackhole::consume);
+    }
+
+    @Benchmark
+    public String treeAndFormat() throws IOException {
+        return legacyParse(feedText);
+    }
+
+    @Benchmark
+    public NeoApproach firstRowStreaming() throws IOException {
+        NeoApproach[] first = new NeoApproach[1];
+        try {
+            parser.parse(new ByteArrayInputStream(feed), neo -> {
+                first[0] = neo;
+                throw STOP;
+            });
+        } catch (RuntimeException e) {
+            if (e != STOP) {
+                throw e;
+            }
+        }
+        return first[0];
+    }
+
+    @Benchmark
+    public JsonNode firstRowTree() throws IOException {
+        JsonNode root = objectMapper.readTree(feedText);
+        Iterator<JsonNode> days = root.get("near_earth_objects").elements();
+        return days.next().get(0);
+    }
+
+    // The rendering NasaController.parseNEOResponse used before the streaming parser
+    private String legacyParse(String response) throws IOException {
+        JsonNode root = objectMapper.readTree(response);
+        JsonNode nearEarthObjects = root.get("near_earth_objects");
+        StringBuilder result = new StringBuilder("Near Earth Objects:\n\n");
+        Iterator<Map.Entry<String, JsonNode>> fields = nearEarthObjects.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> entry = fields.next();
+            JsonNode objects = entry.getValue();
+            result.append(String.format("Date: %s - Found %d objects\n", entry.getKey(), objects.size()));
+            for (int i = 0; i < objects.size(); i++) {
+                JsonNode neo = objects.get(i);
+                String name = neo.get("name") != null ? neo.get("name").asText() : "Unknown";
+                JsonNode diameter = neo.path("estimated_diameter").path("meters").path("estimated_diameter_max");
+                String size = diameter.isMissingNode() ? "Unknown" : String.format("%.2f meters", diameter.asDouble());
+                JsonNode hazardous = neo.get("is_potentially_hazardous_asteroid");
+                boolean isHazardous = hazardous != null && hazardous.asBoolean();
+                result.append(String.format("  - %s (Size: %s)%s\n", name, size,
+                    isHazardous ? " ⚠️ Potentially Hazardous" : ""));
+            }
+            result.append("\n");
+        }
+        return result.toString();
+    }
+}
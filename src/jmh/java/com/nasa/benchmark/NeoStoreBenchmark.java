@@ -0,0 +1,103 @@
+package com.nasa.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.nasa.model.NeoApproach;
+import com.nasa.model.NeoStore;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The NEO filter panel's query (hazardous, diameter above, distance below, fastest first)
+// over the columnar store versus the same query over a List<JsonNode>
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NeoStoreBenchmark {
+    private static final int LIMIT = 500;
+    private static final double MIN_DIAMETER = 50;
+    private static final double MAX_LUNAR = 60;
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    private NeoStore store;
+    private List<JsonNode> nodes;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        ObjectMapper objectMapper = new ObjectMapper();
+        store = new NeoStore();
+        nodes = new ArrayList<>(rows);
+        long epoch = 1_700_000_000_000L;
+        for (int i = 0; i < rows; i++) {
+            double diameterMin = 5 + random.nextDouble() * 900;
+            double missKm = 3e5 + random.nextDouble() * 7.4e7;
+            NeoApproach neo = new NeoApproach(Integer.toString(2_000_000 + i), "(2024 AB" + (i % 997) + ")",
+                "2024-03-" + (10 + i % 18), epoch + i * 60_000L, diameterMin, diameterMin * 2.236,
+                missKm, missKm / 384400, 2 + random.nextDouble() * 33, random.nextInt(10) == 0);
+            store.add(neo);
+
+            ObjectNode node = objectMapper.createObjectNode();
+            node.put("id", neo.id());
+            node.put("name", neo.name());
+            node.put("date", neo.approachDate());
+            node.put("epoch", neo.epochMillis());
+            node.put("diameter", neo.diameterMaxMeters());
+            node.put("lunar", neo.missDistanceLunar());
+            node.put("velocity", neo.velocityKmPerSec());
+            node.put("hazardous", neo.hazardous());
+            nodes.add(node);
+        }
+    }
+
+    @Benchmark
+    public int[] columnar() {
+        int[] matches = store.filter(true, MIN_DIAMETER, MAX_LUNAR);
+        return store.topK(matches, NeoStore.Column.VELOCITY, true, LIMIT);
+    }
+
+    @Benchmark
+    public List<JsonNode> jsonNodes() {
+        return nodes.stream()
+            .filter(node -> node.get("hazardous").asBoolean())
+            .filter(node -> node.get("diameter").asDouble() >= MIN_DIAMETER)
+            .filter(node -> node.get("lunar").asDouble() <= MAX_LUNAR)
+            .sorted(Comparator.comparingDouble((JsonNode node) -> node.get("velocity").asDouble()).reversed())
+            .limit(LIMIT)
+            .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public int[] columnarSortAll() {
+        int[] all = store.allRows();
+        store.sort(all, NeoStore.Column.VELOCITY, true);
+        return all;
+    }
+
+    @Benchmark
+    public List<JsonNode> jsonNodesSortAll() {
+        List<JsonNode> sorted = new ArrayList<>(nodes);
+        sorted.sort(Comparator.comparingDouble((JsonNode node) -> node.get("velocity").asDouble()).reversed());
+        return sorted;
+    }
+}
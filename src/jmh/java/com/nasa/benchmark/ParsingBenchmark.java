@@ -0,0 +1,204 @@
+package com.nasa.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nasa.controller.NasaService;
+import com.nasa.controller.ResponseParser;
+import com.nasa.model.Apod;
+import com.nasa.model.EpicCollection;
+import com.nasa.model.EpicImage;
+import com.nasa.model.LibraryItem;
+import com.nasa.model.RoverPhoto;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Response body to model records for each JSON endpoint: the typed ObjectReaders the app
+// uses against the readTree + JsonNode walk ResponseParser did before, building the same
+// records. The tree benchmarks do not depend on blackbird and run once for each value.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParsingBenchmark {
+    @Param({"false", "true"})
+    public boolean blackbird;
+
+    private ResponseParser parser;
+    private ObjectMapper treeMapper;
+    private String apod;
+    private String library;
+    private String epic;
+    private String mars;
+
+    @Setup
+    public void setup() {
+        parser = new ResponseParser(ResponseParser.createObjectMapper(blackbird));
+        treeMapper = new ObjectMapper();
+        apod = Fixtures.text("apod.json");
+        library = Fixtures.text("library-search.json");
+        epic = Fixtures.text("epic-natural.json");
+        mars = Fixtures.text("mars-photos.json");
+    }
+
+    @Benchmark
+    public Apod parseApod() throws IOException {
+        return parser.parseApod(apod);
+    }
+
+    @Benchmark
+    public List<LibraryItem> parseImageLibrary() throws IOException {
+        return parser.parseLibrary(library);
+    }
+
+    @Benchmark
+    public List<EpicImage> parseEpic() throws IOException {
+        return parser.parseEpicImages(epic, EpicCollection.NATURAL);
+    }
+
+    @Benchmark
+    public List<RoverPhoto> parseMarsRover() throws IOException {
+        return parser.parseRoverPhotos(mars);
+    }
+
+    @Benchmark
+    public Apod treeApod() throws IOException {
+        return treeParseApod(apod);
+    }
+
+    @Benchmark
+    public List<LibraryItem> treeImageLibrary() throws IOException {
+        return treeParseLibrary(library);
+    }
+
+    @Benchmark
+    public List<EpicImage> treeEpic() throws IOException {
+        return treeParseEpic(epic, EpicCollection.NATURAL);
+    }
+
+    @Benchmark
+    public List<RoverPhoto> treeMarsRover() throws IOException {
+        return treeParseRoverPhotos(mars);
+    }
+
+    private Apod treeParseApod(String response) throws IOException {
+        JsonNode root = treeMapper.readTree(response);
+        checkError(root);
+        JsonNode urlNode = root.get("url");
+        if (urlNode == null) {
+            throw new IOException("No media URL found in the response");
+        }
+        return new Apod(
+            Optional.ofNullable(root.path("date").asText(null)),
+            root.path("title").asText("No title available"),
+            root.path("explanation").asText("No explanation available"),
+            root.path("media_type").asText("image"),
+            urlNode.asText(),
+            Optional.ofNullable(root.path("hdurl").asText(null)),
+            Optional.ofNullable(root.path("copyright").asText(null))
+        );
+    }
+
+    private List<RoverPhoto> treeParseRoverPhotos(String response) throws IOException {
+        JsonNode root = treeMapper.readTree(response);
+        checkError(root);
+        JsonNode photos = root.get("photos");
+        if (photos == null || !photos.isArray()) {
+            throw new IOException("No photos found in the response");
+        }
+        List<RoverPhoto> result = new ArrayList<>(photos.size());
+        for (JsonNode photo : photos) {
+            String imageUrl = photo.path("img_src").asText(null);
+            if (imageUrl == null) {
+                continue;
+            }
+            if (imageUrl.startsWith("http://")) {
+                imageUrl = "https://" + imageUrl.substring(7);
+            }
+            result.add(new RoverPhoto(
+                photo.path("id").asLong(),
+                photo.path("sol").asInt(),
+                photo.path("camera").path("name").asText("?"),
+                photo.path("camera").path("full_name").asText(""),
+                ResponseParser.encodeUrl(imageUrl),
+                photo.path("earth_date").asText(""),
+                photo.path("rover").path("name").asText("Unknown")
+            ));
+        }
+        return result;
+    }
+
+    private List<EpicImage> treeParseEpic(String response, EpicCollection collection) throws IOException {
+        JsonNode root = treeMapper.readTree(response);
+        if (!root.isArray()) {
+            throw new IOException("Expected a list of EPIC images");
+        }
+        List<EpicImage> result = new ArrayList<>(root.size());
+        for (JsonNode entry : root) {
+            String image = entry.path("image").asText(null);
+            String date = entry.path("date").asText(null);
+            if (image == null || date == null) {
+                continue;
+            }
+            LocalDate day = LocalDate.parse(date.split(" ")[0]);
+            result.add(new EpicImage(
+                entry.path("identifier").asText(""),
+                image,
+                entry.path("caption").asText(""),
+                date,
+                NasaService.epicImageUrl(collection, day, image),
+                NasaService.epicJpegUrl(collection, day, image)
+            ));
+        }
+        return result;
+    }
+
+    private List<LibraryItem> treeParseLibrary(String response) throws IOException {
+        JsonNode root = treeMapper.readTree(response);
+        JsonNode items = root.path("collection").path("items");
+        if (!items.isArray()) {
+            throw new IOException("No collection found in the response");
+        }
+        List<LibraryItem> result = new ArrayList<>(items.size());
+        for (JsonNode item : items) {
+            JsonNode data = item.path("data").path(0);
+            JsonNode links = item.get("links");
+            String previewUrl = links != null && links.size() > 0
+                ? ResponseParser.encodeUrl(links.get(0).path("href").asText())
+                : null;
+            result.add(new LibraryItem(
+                data.path("nasa_id").asText(""),
+                data.path("title").asText("Untitled"),
+                data.path("description").asText(""),
+                data.path("media_type").asText("image"),
+                data.path("date_created").asText(""),
+                Optional.ofNullable(previewUrl),
+                Optional.ofNullable(item.path("href").asText(null))
+            ));
+        }
+        return result;
+    }
+
+    private static void checkError(JsonNode root) throws IOException {
+        if (root.has("error")) {
+            JsonNode error = root.get("error");
+            throw new IOException("API Error: " + (error.isObject() ? error.path("message").asText() : error.asText()));
+        }
+    }
+}
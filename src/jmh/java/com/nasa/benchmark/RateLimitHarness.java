@@ -0,0 +1,154 @@
+package com.nasa.benchmark;
+
+import com.nasa.controller.NasaTransport;
+import com.nasa.controller.RateLimiter;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Replays a burst of mixed interactive and background calls against a local stub that
+// enforces an api.nasa.gov style rolling quota, once through the RateLimiter and once
+// unmetered, and reports 429s and per-priority latency. Time is compressed: the stub's
+// window is WINDOW_SECONDS instead of an hour, and the limiter uses the same window.
+//   mvn -Pbenchmark test-compile exec:exec -Dbench.main=com.nasa.benchmark.RateLimitHarness -Djmh.args=
+public class RateLimitHarness {
+    private static final int QUOTA = 40;
+    private static final int WINDOW_SECONDS = 10;
+    private static final int REQUESTS = 120;
+    private static final int INTERACTIVE_EVERY = 4;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("Quota " + QUOTA + " per " + WINDOW_SECONDS + "s, " + REQUESTS + " requests, every "
+            + INTERACTIVE_EVERY + "th interactive");
+        run(false);
+        run(true);
+        System.exit(0);
+    }
+
+    private static void run(boolean metered) throws Exception {
+        QuotaStub stub = new QuotaStub();
+        NasaTransport transport = new NasaTransport();
+        if (metered) {
+            transport.setRateLimiter("127.0.0.1", new RateLimiter(QUOTA, TimeUnit.SECONDS.toNanos(WINDOW_SECONDS)));
+        }
+        String url = "http://127.0.0.1:" + stub.port() + "/planetary/apod";
+
+        List<Long> interactive = new ArrayList<>();
+        List<Long> background = new ArrayList<>();
+        AtomicInteger rejected = new AtomicInteger();
+        List<CompletableFuture<Void>> calls = new ArrayList<>();
+        long started = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            boolean isInteractive = i % INTERACTIVE_EVERY == 0;
+            HttpRequest request = transport.request(url).build();
+            long sent = System.nanoTime();
+            calls.add(transport.sendString(request,
+                    isInteractive ? RateLimiter.Priority.INTERACTIVE : RateLimiter.Priority.BACKGROUND)
+                .thenAccept(response -> record(response, sent, isInteractive ? interactive : background, rejected))
+                .exceptionally(e -> {
+                    rejected.incrementAndGet();
+                    return null;
+                }));
+        }
+        CompletableFuture.allOf(calls.toArray(new CompletableFuture[0])).get(5, TimeUnit.MINUTES);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        System.out.printf("%n%s: %d rejected (server saw %d over quota), finished in %d ms%n",
+            metered ? "Metered" : "Unmetered", rejected.get(), stub.overQuota.get(), elapsed);
+        System.out.println("  interactive " + summary(interactive));
+        System.out.println("  background  " + summary(background));
+        transport.shutdown();
+        stub.stop();
+    }
+
+    private static void record(HttpResponse<String> response, long sent, List<Long> latencies, AtomicInteger rejected) {
+        if (response.statusCode() != 200) {
+            rejected.incrementAndGet();
+            return;
+        }
+        synchronized (latencies) {
+            latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sent));
+        }
+    }
+
+    private static String summary(List<Long> latencies) {
+        if (latencies.isEmpty()) {
+            return "no successful calls";
+        }
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return String.format("ok=%d p50=%dms p95=%dms max=%dms", sorted.length,
+            sorted[sorted.length / 2], sorted[(int) (sorted.length * 0.95)], sorted[sorted.length - 1]);
+    }
+
+    // Answers 200 with X-RateLimit headers while under quota and 429 with Retry-After once
+    // the rolling window is used up, like api.nasa.gov
+    private static final class QuotaStub {
+        private final HttpServer server;
+        private final ArrayDeque<Long> window = new ArrayDeque<>();
+        private final AtomicInteger overQuota = new AtomicInteger();
+
+        QuotaStub() throws IOException {
+            byte[] body = Fixtures.bytes("apod.json");
+            // Real servers disable Nagle; without this every reused connection waits out a delayed ACK
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.createContext("/planetary/apod", exchange -> {
+                int remaining = take();
+                exchange.getResponseHeaders().set("X-RateLimit-Limit", Integer.toString(QUOTA));
+                exchange.getResponseHeaders().set("X-RateLimit-Remaining", Integer.toString(Math.max(0, remaining)));
+                if (remaining < 0) {
+                    overQuota.incrementAndGet();
+                    byte[] error = "{\"error\":{\"code\":\"OVER_RATE_LIMIT\"}}".getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().set("Retry-After", "1");
+                    exchange.sendResponseHeaders(429, error.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(error);
+                    }
+                    return;
+                }
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.setExecutor(Executors.newFixedThreadPool(8));
+            server.start();
+        }
+
+        int port() {
+            return server.getAddress().getPort();
+        }
+
+        // Remaining quota after this call, negative when the call is over quota
+        private synchronized int take() {
+            long now = System.nanoTime();
+            long cutoff = now - TimeUnit.SECONDS.toNanos(WINDOW_SECONDS);
+            while (!window.isEmpty() && window.peekFirst() - cutoff < 0) {
+                window.pollFirst();
+            }
+            if (window.size() >= QUOTA) {
+                return -1;
+            }
+            window.addLast(now);
+            return QUOTA - window.size();
+        }
+
+        void stop() {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.nasa.benchmark;
+
+import com.nasa.controller.LiveSearch;
+import com.nasa.controller.NasaTransport;
+import com.nasa.controller.ResponseParser;
+import com.nasa.model.LibraryPage;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Replays recorded-style typing traces through LiveSearch against a local Image Library
+// stub with realistic latency, for several debounce intervals, and reports how many
+// requests reached the server and how long the user waited after the last keystroke.
+//   mvn -Pbenchmark test-compile exec:exec -Dbench.main=com.nasa.benchmark.SearchReplayHarness -Djmh.args=
+public class SearchReplayHarness {
+    private static final int SERVER_LATENCY_MILLIS = 180;
+    private static final int CORPUS_SIZE = 6000;
+    private static final long[] DEBOUNCE_MILLIS = {0, 150, 250, 400};
+    private static final String[] TRACES = {
+        "apollo 11", "apollo 13 launch", "mars rover", "mars curiosity", "hubble deep field",
+        "saturn rings", "earthrise", "crab nebula", "orion nebula", "apollo 17 moon",
+        "jupiter", "shuttle launch", "iss spacewalk", "andromeda galaxy", "moon landing"
+    };
+    private static final String[] VOCABULARY = {
+        "apollo", "11", "13", "17", "mars", "rover", "curiosity", "perseverance", "hubble", "deep",
+        "field", "saturn", "rings", "earthrise", "moon", "landing", "nebula", "galaxy", "crab",
+        "orion", "launch", "shuttle", "iss", "spacewalk", "jupiter", "andromeda", "crew", "pad",
+        "eagle", "lunar", "module", "surface", "crater", "sunrise", "eclipse", "comet"
+    };
+
+    public static void main(String[] args) throws Exception {
+        try (Stub stub = new Stub()) {
+            System.out.printf("%d traces, %d ms server latency%n", TRACES.length, SERVER_LATENCY_MILLIS);
+            for (long debounce : DEBOUNCE_MILLIS) {
+                replay(stub, debounce);
+            }
+        }
+        System.exit(0);
+    }
+
+    private static void replay(Stub stub, long debounceMillis) throws InterruptedException {
+        NasaTransport transport = new NasaTransport();
+        ResponseParser parser = new ResponseParser(ResponseParser.createObjectMapper(false));
+        Results results = new Results();
+        LiveSearch liveSearch = new LiveSearch(query -> {
+            String url = stub.url() + "/search?q=" + URLEncoder.encode(query, StandardCharsets.UTF_8)
+                + "&page=1&page_size=100";
+            CompletableFuture<HttpResponse<String>> sent = transport.sendString(transport.request(url).build());
+            CompletableFuture<LibraryPage> page = sent.thenApply(response -> {
+                try {
+                    return parser.parseLibraryPage(response.body(), 1);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            });
+            page.whenComplete((result, error) -> {
+                if (page.isCancelled()) {
+                    sent.cancel(true);
+                }
+            });
+            return page;
+        }, debounceMillis, results);
+
+        int before = stub.requests.get();
+        Random random = new Random(7);
+        List<Long> waits = new ArrayList<>();
+        for (String trace : TRACES) {
+            results.expect(trace);
+            for (int i = 1; i < trace.length(); i++) {
+                liveSearch.type(trace.substring(0, i));
+                // Quick keystrokes with a longer pause between words
+                Thread.sleep(trace.charAt(i - 1) == ' ' ? 350 + random.nextInt(300) : 70 + random.nextInt(150));
+            }
+            long lastKey = System.nanoTime();
+            liveSearch.type(trace);
+            long done = results.await(5, TimeUnit.SECONDS);
+            waits.add(done < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(done - lastKey));
+            // Reading the results before the next search
+            Thread.sleep(800);
+        }
+        long[] sorted = waits.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        System.out.printf("debounce %3d ms: %3d requests, %3d cancelled, %2d answered from cache, "
+                + "wait after last key p50=%d ms p95=%d ms%n",
+            debounceMillis, stub.requests.get() - before, liveSearch.getCancelledCount(),
+            liveSearch.getCacheHitCount(), sorted[sorted.length / 2], sorted[(int) Math.ceil(sorted.length * 0.95) - 1]);
+        liveSearch.shutdown();
+        transport.shutdown();
+    }
+
+    // Records when the final, non-provisional result for the expected query arrives
+    private static final class Results implements LiveSearch.Listener {
+        private String expected;
+        private long arrived;
+
+        synchronized void expect(String query) {
+            expected = query;
+            arrived = 0;
+        }
+
+        synchronized long await(long timeout, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            while (arrived == 0) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0) {
+                    return -1;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, left);
+            }
+            return arrived;
+        }
+
+        @Override
+        public synchronized void onResults(String query, LibraryPage page, boolean provisional) {
+            if (!provisional && query.equals(expected) && arrived == 0) {
+                arrived = System.nanoTime();
+                notifyAll();
+            }
+        }
+
+        @Override
+        public void onError(String query, Throwable error) {
+            System.err.println("Search for \"" + query + "\" failed: " + error);
+        }
+    }
+
+    // images-api.nasa.gov look-alike over a generated corpus: every query term must be a whole
+    // word of the title, as the real API matches words rather than substrings. Results come
+    // 100 to a page with a rel=next link while more remain.
+    private static final class Stub implements AutoCloseable {
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newFixedThreadPool(16);
+        private final String[] titles = new String[CORPUS_SIZE];
+        private final AtomicInteger requests = new AtomicInteger();
+
+        Stub() throws IOException {
+            Random random = new Random(42);
+            for (int i = 0; i < CORPUS_SIZE; i++) {
+                StringBuilder title = new StringBuilder();
+                int words = 3 + random.nextInt(3);
+                for (int w = 0; w < words; w++) {
+                    title.append(w == 0 ? "" : " ").append(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+                }
+                titles[i] = title.toString();
+            }
+            // Make sure every trace has hits
+            for (int i = 0; i < TRACES.length; i++) {
+                titles[i * 7] = TRACES[i] + " " + titles[i * 7];
+            }
+
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.createContext("/search", exchange -> {
+                requests.incrementAndGet();
+                String query = "";
+                for (String param : exchange.getRequestURI().getRawQuery().split("&")) {
+                    if (param.startsWith("q=")) {
+                        query = URLDecoder.decode(param.substring(2), StandardCharsets.UTF_8);
+                    }
+                }
+                byte[] body = search(query).getBytes(StandardCharsets.UTF_8);
+                try {
+                    Thread.sleep(SERVER_LATENCY_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                try {
+                    exchange.sendResponseHeaders(200, body.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body);
+                    }
+                } catch (IOException e) {
+                    // The client aborted a superseded request
+                    exchange.close();
+                }
+            });
+            server.setExecutor(executor);
+            server.start();
+        }
+
+        String url() {
+            return "http://127.0.0.1:" + server.getAddress().getPort();
+        }
+
+        private String search(String query) {
+            String[] terms = query.toLowerCase(Locale.ROOT).trim().split("\\s+");
+            List<Integer> hits = new ArrayList<>();
+            for (int i = 0; i < titles.length; i++) {
+                List<String> words = Arrays.asList(titles[i].split(" "));
+                boolean all = true;
+                for (String term : terms) {
+                    if (!words.contains(term)) {
+                        all = false;
+                        break;
+                    }
+                }
+                if (all) {
+                    hits.add(i);
+                }
+            }
+            StringBuilder json = new StringBuilder("{\"collection\":{\"items\":[");
+            for (int i = 0; i < Math.min(100, hits.size()); i++) {
+                int id = hits.get(i);
+                json.append(i == 0 ? "" : ",")
+                    .append("{\"href\":\"").append(url()).append("/asset/").append(id).append("\",")
+                    .append("\"data\":[{\"nasa_id\":\"id").append(id).append("\",\"title\":\"").append(titles[id])
+                    .append("\",\"description\":\"\",\"media_type\":\"image\",\"date_created\":\"1969-07-20T00:00:00Z\"}],")
+                    .append("\"links\":[{\"href\":\"").append(url()).append("/thumb/").append(id)
+                    .append(".jpg\",\"rel\":\"preview\"}]}");
+            }
+            json.append("],\"metadata\":{\"total_hits\":").append(hits.size()).append("},\"links\":[");
+            if (hits.size() > 100) {
+                json.append("{\"rel\":\"next\",\"href\":\"").append(url()).append("/search?page=2\"}");
+            }
+            return json.append("]}}").toString();
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.nasa.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Launches the application in fresh JVMs with -Dnasa.startup.exit=true, which makes it exit
+// once the window is up and the backend is ready, and reports time-to-first-frame as logged
+// by Main alongside the wall time of the whole process. Runs with and without class data
+// sharing, and with the AppCDS archive when `mvn -Pcds package` has produced one.
+// Without a display the window is skipped and the backend time is reported instead.
+//   mvn -Pbenchmark test-compile exec:exec -Dbench.main=com.nasa.benchmark.StartupHarness -Djmh.args=
+public class StartupHarness {
+    private static final int RUNS = Integer.getInteger("startup.runs", 7);
+    private static final Path JAR = Paths.get("target", "nasa-explorer-1.0-SNAPSHOT.jar");
+    private static final Path ARCHIVE = Paths.get("target", "nasa-explorer.jsa");
+    private static final Pattern FIRST_FRAME = Pattern.compile("First frame after (\\d+) ms");
+    private static final Pattern READY = Pattern.compile("(?:Application|Backend) ready after (\\d+) ms");
+
+    public static void main(String[] args) throws Exception {
+        // The archive only matches the jar it was trained with, so use that jar when present
+        List<String> classpath = Files.exists(JAR)
+            ? List.of("-cp", JAR.toString())
+            : List.of("-cp", System.getProperty("java.class.path"));
+        Path cacheDirectory = Files.createTempDirectory("nasa-startup");
+
+        System.out.printf("%d runs each, classpath %s%n", RUNS, Files.exists(JAR) ? JAR : "target/classes");
+        System.out.printf("%-10s %12s %12s %12s%n", "config", "frame p50", "ready p50", "process p50");
+        measure("no-cds", List.of("-Xshare:off"), classpath, cacheDirectory);
+        measure("cds", List.of(), classpath, cacheDirectory);
+        if (Files.exists(JAR) && Files.exists(ARCHIVE)) {
+            measure("appcds", List.of("-XX:SharedArchiveFile=" + ARCHIVE), classpath, cacheDirectory);
+        } else {
+            System.out.println("appcds     skipped, build the archive with: mvn -Pcds package");
+        }
+        System.exit(0);
+    }
+
+    private static void measure(String name, List<String> jvmOptions, List<String> classpath, Path cacheDirectory)
+            throws IOException, InterruptedException {
+        long[] frame = new long[RUNS];
+        long[] ready = new long[RUNS];
+        long[] process = new long[RUNS];
+        // One untimed launch first, so every configuration sees a warm page cache
+        launch(jvmOptions, classpath, cacheDirectory);
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            List<String> output = launch(jvmOptions, classpath, cacheDirectory);
+            process[run] = (System.nanoTime() - start) / 1_000_000;
+            frame[run] = find(output, FIRST_FRAME);
+            ready[run] = find(output, READY);
+        }
+        System.out.printf("%-10s %12s %12s %9d ms%n", name, format(median(frame)), format(median(ready)),
+            median(process));
+    }
+
+    private static List<String> launch(List<String> jvmOptions, List<String> classpath, Path cacheDirectory)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.add("-Dnasa.startup.exit=true");
+        command.add("-Dnasa.cache.dir=" + cacheDirectory);
+        command.addAll(classpath);
+        command.add("com.nasa.Main");
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        List<String> output = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.add(line);
+            }
+        }
+        if (process.waitFor() != 0) {
+            throw new IOException("Startup run failed: " + String.join("\n", output));
+        }
+        return output;
+    }
+
+    private static long find(List<String> output, Pattern pattern) {
+        for (String line : output) {
+            Matcher matcher = pattern.matcher(line);
+            if (matcher.find()) {
+                return Long.parseLong(matcher.group(1));
+            }
+        }
+        return -1;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static String format(long millis) {
+        return millis < 0 ? "n/a" : millis + " ms";
+    }
+}
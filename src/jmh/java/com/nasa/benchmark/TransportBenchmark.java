@@ -0,0 +1,87 @@
+package com.nasa.benchmark;
+
+import com.nasa.controller.NasaTransport;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Round trips against a local stub serving the APOD fixture: the shared, connection-reusing
+// transport versus building a fresh HttpClient per request as the controller used to.
+// Loopback hides network latency, so the gap here is the client/handshake overhead alone.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransportBenchmark {
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private NasaTransport transport;
+    private HttpRequest request;
+
+    @Setup
+    public void setup() throws IOException {
+        byte[] body = Fixtures.bytes("apod.json");
+        // Real servers disable Nagle; without this every reused connection waits out a delayed ACK
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/planetary/apod", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        serverExecutor = Executors.newFixedThreadPool(4);
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        transport = new NasaTransport();
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/planetary/apod";
+        request = transport.request(url).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        transport.shutdown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public String sharedTransport() {
+        return transport.sendString(request).join().body();
+    }
+
+    @Benchmark
+    public String clientPerRequest() throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest fresh = HttpRequest.newBuilder()
+            .uri(URI.create(request.uri().toString()))
+            .header("User-Agent", "NASA-App/1.0")
+            .GET()
+            .build();
+        return client.send(fresh, HttpResponse.BodyHandlers.ofString()).body();
+    }
+}
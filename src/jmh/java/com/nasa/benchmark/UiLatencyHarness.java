@@ -0,0 +1,282 @@
+package com.nasa.benchmark;
+
+import com.nasa.controller.NasaController;
+import com.nasa.controller.NasaService;
+import com.nasa.metrics.Histogram;
+import com.nasa.metrics.Metrics;
+import com.nasa.model.NasaModel;
+import com.nasa.view.EdtWatchdog;
+import com.nasa.view.NasaView;
+import com.nasa.view.TimingRepaintManager;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.EventQueue;
+import java.awt.GraphicsEnvironment;
+import java.awt.Toolkit;
+import java.awt.event.InputEvent;
+import java.awt.event.MouseEvent;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import javax.swing.AbstractButton;
+import javax.swing.JTextArea;
+import javax.swing.RepaintManager;
+import javax.swing.SwingUtilities;
+
+// Drives the real window with scripted clicks on the feature buttons, with every API host
+// served by a local stub, and reports input-to-paint latency: from the mouse press being
+// posted to the first paint (the button's own feedback) and to the paint that shows the
+// result. Needs a display; on a CI machine run it under Xvfb:
+//   xvfb-run -a mvn -Pbenchmark test-compile exec:exec -Dbench.main=com.nasa.benchmark.UiLatencyHarness -Djmh.args=
+// -Dui.runs sets the clicks per scenario, -Dui.latency the stub's response time in ms.
+public class UiLatencyHarness {
+    private static final int RUNS = Integer.getInteger("ui.runs", 30);
+    private static final int WARMUP_RUNS = 3;
+    private static final int SERVER_LATENCY_MILLIS = Integer.getInteger("ui.latency", 60);
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private record Scenario(String button, String resultPrefix) {
+    }
+
+    private static final Scenario[] SCENARIOS = {
+        new Scenario("Astronomy Picture of the Day", "Title: "),
+        new Scenario("Mars Rover Photos", "Showing photos taken by"),
+        new Scenario("EPIC Earth Images", "Showing EPIC image from"),
+    };
+
+    private static volatile Probe probe;
+
+    public static void main(String[] args) throws Exception {
+        if (GraphicsEnvironment.isHeadless()) {
+            System.err.println("UiLatencyHarness needs a display, run it under xvfb-run");
+            System.exit(2);
+        }
+        try (Stub stub = new Stub()) {
+            // Read when the transport and disk cache classes load, so set before either does
+            System.setProperty("nasa.endpoint.override", stub.url());
+            System.setProperty("nasa.cache.dir", Files.createTempDirectory("nasa-ui").toString());
+            System.setProperty("nasa.edt.stall.ms", "100");
+
+            NasaService service = new NasaService(new NasaModel(), "DEMO_KEY");
+            EdtWatchdog[] watchdog = new EdtWatchdog[1];
+            NasaView[] view = new NasaView[1];
+            SwingUtilities.invokeAndWait(() -> {
+                RepaintManager.setCurrentManager(new ProbingRepaintManager());
+                watchdog[0] = EdtWatchdog.install();
+                view[0] = new NasaView();
+                new NasaController(service.getModel(), view[0], service);
+                view[0].setVisible(true);
+            });
+            // Let the first layout, paint and session restore settle
+            Thread.sleep(1500);
+
+            System.out.printf("%d clicks per scenario, %d ms stub latency%n", RUNS, SERVER_LATENCY_MILLIS);
+            System.out.printf("%-30s %14s %14s %14s %14s %10s%n",
+                "scenario", "feedback p50", "result p50", "result p90", "result p99", "timeouts");
+            long stallsBefore = watchdog[0] != null ? watchdog[0].getStallCount() : 0;
+            for (Scenario scenario : SCENARIOS) {
+                run(view[0], scenario);
+            }
+            long stalls = watchdog[0] != null ? watchdog[0].getStallCount() - stallsBefore : 0;
+            System.out.printf("%d EDT stalls over 100 ms, %d stub requests%n", stalls, stub.requests.get());
+            for (Histogram histogram : List.of(Metrics.DISPATCH, Metrics.LAYOUT, Metrics.PAINT)) {
+                System.out.println("  " + histogram.snapshot());
+            }
+            SwingUtilities.invokeAndWait(view[0]::dispose);
+            service.shutdown();
+        }
+        System.exit(0);
+    }
+
+    private static void run(NasaView view, Scenario scenario) throws Exception {
+        AbstractButton button = find(view, AbstractButton.class, b -> scenario.button().equals(b.getText()));
+        JTextArea resultArea = find(view, JTextArea.class, area -> !area.isEditable());
+        List<Long> feedback = new ArrayList<>();
+        List<Long> result = new ArrayList<>();
+        int timeouts = 0;
+        for (int run = 0; run < WARMUP_RUNS + RUNS; run++) {
+            SwingUtilities.invokeAndWait(() -> resultArea.setText(""));
+            // The repaint for the cleared text is queued behind this, so it is out of the way
+            SwingUtilities.invokeAndWait(() -> { });
+            Probe current = new Probe(() -> resultArea.getText().startsWith(scenario.resultPrefix()));
+            probe = current;
+            click(button, current);
+            boolean done = current.result.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            probe = null;
+            if (run < WARMUP_RUNS) {
+                continue;
+            }
+            if (!done) {
+                timeouts++;
+                continue;
+            }
+            feedback.add(current.firstPaint - current.input);
+            result.add(current.resultPaint - current.input);
+            // Reading the result before the next click
+            Thread.sleep(200);
+        }
+        System.out.printf("%-30s %14s %14s %14s %14s %10d%n", scenario.button(),
+            millis(feedback, 50), millis(result, 50), millis(result, 90), millis(result, 99), timeouts);
+    }
+
+    // Press, release and click posted together, as the toolkit would deliver them
+    private static void click(AbstractButton button, Probe probe) {
+        EventQueue queue = Toolkit.getDefaultToolkit().getSystemEventQueue();
+        int x = button.getWidth() / 2;
+        int y = button.getHeight() / 2;
+        long when = System.currentTimeMillis();
+        probe.input = System.nanoTime();
+        queue.postEvent(new MouseEvent(button, MouseEvent.MOUSE_PRESSED, when, InputEvent.BUTTON1_DOWN_MASK,
+            x, y, 1, false, MouseEvent.BUTTON1));
+        queue.postEvent(new MouseEvent(button, MouseEvent.MOUSE_RELEASED, when, 0, x, y, 1, false, MouseEvent.BUTTON1));
+        queue.postEvent(new MouseEvent(button, MouseEvent.MOUSE_CLICKED, when, 0, x, y, 1, false, MouseEvent.BUTTON1));
+    }
+
+    private static String millis(List<Long> nanos, double percentile) {
+        if (nanos.isEmpty()) {
+            return "n/a";
+        }
+        long[] sorted = nanos.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        long value = sorted[Math.max(0, (int) Math.ceil(sorted.length * percentile / 100.0) - 1)];
+        return String.format("%.1f ms", value / 1e6);
+    }
+
+    private static <T extends Component> T find(Container root, Class<T> type, Predicate<T> match) {
+        T found = search(root, type, match);
+        if (found == null) {
+            throw new IllegalStateException("No matching " + type.getSimpleName() + " in the window");
+        }
+        return found;
+    }
+
+    private static <T extends Component> T search(Container root, Class<T> type, Predicate<T> match) {
+        for (Component child : root.getComponents()) {
+            if (type.isInstance(child) && match.test(type.cast(child))) {
+                return type.cast(child);
+            }
+            if (child instanceof Container) {
+                T found = search((Container) child, type, match);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    // One click being measured. Both times are taken on the EDT right after a paint pass.
+    private static final class Probe {
+        private final BooleanSupplier resultShown;
+        private final CountDownLatch result = new CountDownLatch(1);
+        private volatile long input;
+        private volatile long firstPaint;
+        private volatile long resultPaint;
+
+        Probe(BooleanSupplier resultShown) {
+            this.resultShown = resultShown;
+        }
+
+        void painted(long now) {
+            if (firstPaint == 0) {
+                firstPaint = now;
+            }
+            if (resultPaint == 0 && resultShown.getAsBoolean()) {
+                resultPaint = now;
+                result.countDown();
+            }
+        }
+    }
+
+    private static final class ProbingRepaintManager extends TimingRepaintManager {
+        @Override
+        public void paintDirtyRegions() {
+            super.paintDirtyRegions();
+            Probe current = probe;
+            if (current != null && current.input != 0) {
+                current.painted(System.nanoTime());
+            }
+        }
+    }
+
+    // Serves the recorded fixtures for every JSON endpoint the scenarios touch and one
+    // generated photo for everything else, reached through nasa.endpoint.override as
+    // /<original host>/<original path>
+    private static final class Stub implements AutoCloseable {
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newFixedThreadPool(16);
+        private final AtomicInteger requests = new AtomicInteger();
+        private final byte[] photo = Fixtures.image(1600, 1200, "jpg");
+
+        Stub() throws IOException {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.createContext("/", this::handle);
+            server.setExecutor(executor);
+            server.start();
+        }
+
+        String url() {
+            return "http://127.0.0.1:" + server.getAddress().getPort();
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            requests.incrementAndGet();
+            String path = exchange.getRequestURI().getPath();
+            String query = exchange.getRequestURI().getRawQuery() != null ? exchange.getRequestURI().getRawQuery() : "";
+            byte[] body;
+            String type = "application/json";
+            if (path.contains("/planetary/apod")) {
+                String apod = Fixtures.text("apod.json");
+                body = (query.contains("start_date=") ? "[" + apod + "]" : apod).getBytes(StandardCharsets.UTF_8);
+            } else if (path.contains("/mars-photos/")) {
+                body = Fixtures.bytes("mars-photos.json");
+            } else if (path.contains("/neo/")) {
+                body = Fixtures.bytes("neo-feed-week.json");
+            } else if (path.startsWith("/images-api.nasa.gov/search")) {
+                body = Fixtures.bytes("library-search.json");
+            } else if (path.startsWith("/epic.gsfc.nasa.gov/api/")) {
+                body = Fixtures.bytes("epic-natural.json");
+            } else {
+                body = photo;
+                type = "image/jpeg";
+            }
+            try {
+                Thread.sleep(SERVER_LATENCY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", type);
+            try {
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (IOException e) {
+                // The client aborted a superseded request
+                exchange.close();
+            }
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.nasa;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.SimpleFormatter;
+
+// Log handler that keeps disk I/O off the threads doing the logging, the EDT and the
+// HttpClient pool included. publish() only claims a slot in a bounded lock-free ring; one
+// writer thread formats the records and appends them in batches through a single
+// FileChannel, echoing each batch to stderr. The file rolls over by size and at the first
+// write of a new day (name, name.1, name.2, ...). With a full ring, records are dropped and
+// counted (DROP, reported in the log once there is room) or the logging thread waits for
+// the writer (BLOCK). Only warnings and errors carry the calling method; below that the
+// logger name is used as the source.
+public class AsyncLogHandler extends Handler {
+    public enum Overflow {
+        DROP,
+        BLOCK
+    }
+
+    // The writer wakes up this often on its own; a warning, a filling ring or flush() wake it sooner
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int BATCH_CHARS = 64 * 1024;
+
+    private final Path directory;
+    private final String fileName;
+    private final long maxBytes;
+    private final int maxFiles;
+    private final Overflow overflow;
+    private final boolean console;
+
+    // Multi-producer, single-consumer: producers claim a sequence with a CAS on tail and then
+    // fill its slot; the writer empties slots in order and only then moves head past them
+    private final AtomicReferenceArray<LogRecord> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    // Sequence up to which records have been handed to the file
+    private volatile long written;
+    // Dropped since the writer last reported it, and already reported
+    private final LongAdder dropped = new LongAdder();
+    private volatile long droppedReported;
+    private final Thread writer;
+    private volatile boolean closed;
+
+    // Writer thread only
+    private FileChannel channel;
+    private long fileBytes;
+    private LocalDate fileDay;
+
+    public AsyncLogHandler(Path directory, String fileName, long maxBytes, int maxFiles, int capacity,
+                           Overflow overflow, boolean console) {
+        if (maxBytes <= 0 || maxFiles < 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Log size, file count and buffer capacity must be positive");
+        }
+        this.directory = directory;
+        this.fileName = fileName;
+        this.maxBytes = maxBytes;
+        this.maxFiles = maxFiles;
+        this.overflow = overflow;
+        this.console = console;
+        int size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        setFormatter(new SimpleFormatter());
+        this.writer = new Thread(this::drain, "nasa-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Platform log directory, overridable with -Dnasa.log.dir
+    public static Path defaultDirectory() {
+        String override = System.getProperty("nasa.log.dir");
+        if (override != null && !override.isEmpty()) {
+            return Paths.get(override);
+        }
+        String userHome = System.getProperty("user.home");
+        String os = System.getProperty("os.name", "").toLowerCase();
+        if (os.contains("mac")) {
+            return Paths.get(userHome, "Library", "Logs", "NasaExplorer");
+        }
+        if (os.contains("win") && System.getenv("LOCALAPPDATA") != null) {
+            return Paths.get(System.getenv("LOCALAPPDATA"), "NasaExplorer", "Logs");
+        }
+        String xdgState = System.getenv("XDG_STATE_HOME");
+        if (xdgState != null && !xdgState.isEmpty()) {
+            return Paths.get(xdgState, "NasaExplorer");
+        }
+        return Paths.get(userHome, ".local", "state", "NasaExplorer");
+    }
+
+    public Path getFile() {
+        return directory.resolve(fileName);
+    }
+
+    public long getDroppedCount() {
+        return droppedReported + dropped.sum();
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (closed || !isLoggable(record)) {
+            return;
+        }
+        if (record.getLevel().intValue() >= Level.WARNING.intValue()) {
+            // Resolve the caller now; inferred later it would be the writer thread
+            record.getSourceClassName();
+        } else {
+            // The stack walk would cost more than the rest of logging put together; every
+            // logger here is named after its class, so that stands in for the source
+            record.setSourceClassName(record.getLoggerName());
+        }
+        long sequence;
+        while (true) {
+            sequence = tail.get();
+            if (sequence - head > mask) {
+                if (overflow == Overflow.DROP) {
+                    dropped.increment();
+                    return;
+                }
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+                if (closed) {
+                    return;
+                }
+            } else if (tail.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+        slots.set((int) (sequence & mask), record);
+        if (record.getLevel().intValue() >= Level.WARNING.intValue() || sequence - head >= (mask + 1) / 2) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    // Returns once everything published before the call is in the file
+    @Override
+    public void flush() {
+        long target = tail.get();
+        while (written < target && writer.isAlive() && Thread.currentThread() != writer) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        flush();
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        StringBuilder batch = new StringBuilder(BATCH_CHARS + 1024);
+        while (true) {
+            long next = head;
+            long claimed = tail.get();
+            while (next < claimed && batch.length() < BATCH_CHARS) {
+                int index = (int) (next & mask);
+                LogRecord record = slots.get(index);
+                if (record == null) {
+                    // Claimed, but the producer has not stored it yet
+                    break;
+                }
+                // Emptied before head moves past it, so a producer never loses a slot to this
+                slots.lazySet(index, null);
+                batch.append(format(record));
+                next++;
+            }
+            head = next;
+            long lost = dropped.sumThenReset();
+            if (lost > 0) {
+                droppedReported += lost;
+                LogRecord notice = new LogRecord(Level.WARNING, lost + " log records dropped, the log buffer was full");
+                notice.setLoggerName(AsyncLogHandler.class.getName());
+                notice.setSourceClassName(AsyncLogHandler.class.getName());
+                notice.setSourceMethodName("publish");
+                batch.append(format(notice));
+            }
+            if (batch.length() > 0) {
+                write(batch);
+                batch.setLength(0);
+                written = next;
+                continue;
+            }
+            written = next;
+            if (next < claimed) {
+                Thread.yield();
+            } else if (closed) {
+                break;
+            } else {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+        closeFile();
+    }
+
+    private String format(LogRecord record) {
+        try {
+            return getFormatter().format(record);
+        } catch (RuntimeException e) {
+            reportError("Could not format log record", e, ErrorManager.FORMAT_FAILURE);
+            return "";
+        }
+    }
+
+    private void write(StringBuilder batch) {
+        byte[] bytes = batch.toString().getBytes(StandardCharsets.UTF_8);
+        if (console) {
+            System.err.write(bytes, 0, bytes.length);
+            System.err.flush();
+        }
+        try {
+            rollIfNeeded(bytes.length);
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            fileBytes += bytes.length;
+        } catch (IOException e) {
+            reportError("Could not write " + getFile(), e, ErrorManager.WRITE_FAILURE);
+            closeFile();
+        }
+    }
+
+    private void rollIfNeeded(int incoming) throws IOException {
+        if (channel == null) {
+            open();
+        }
+        boolean full = fileBytes > 0 && fileBytes + incoming > maxBytes;
+        if (!full && LocalDate.now().equals(fileDay)) {
+            return;
+        }
+        closeFile();
+        if (maxFiles == 0) {
+            Files.deleteIfExists(getFile());
+        } else {
+            Files.deleteIfExists(rolled(maxFiles));
+            for (int i = maxFiles - 1; i >= 1; i--) {
+                if (Files.exists(rolled(i))) {
+                    Files.move(rolled(i), rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(getFile(), rolled(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        open();
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(directory);
+        Path file = getFile();
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileBytes = channel.size();
+        // A file left from an earlier day rolls over on the first write
+        fileDay = fileBytes == 0
+            ? LocalDate.now()
+            : LocalDate.ofInstant(Files.getLastModifiedTime(file).toInstant(), ZoneId.systemDefault());
+    }
+
+    private Path rolled(int index) {
+        return directory.resolve(fileName + "." + index);
+    }
+
+    private void closeFile() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            reportError("Could not close " + getFile(), e, ErrorManager.CLOSE_FAILURE);
+        }
+        channel = null;
+    }
+}
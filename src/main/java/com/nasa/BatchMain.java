@@ -0,0 +1,87 @@
+package com.nasa;
+
+import com.nasa.controller.BatchJob;
+import com.nasa.controller.NasaService;
+import com.nasa.model.NasaModel;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Headless entry point for bulk archive pulls, e.g.
+//   java -cp nasa-explorer.jar com.nasa.BatchMain --endpoint apod --start 2015-01-01 --end 2024-12-31 --out apod.jsonl
+// or the same arguments after "batch" when launching the jar normally.
+public class BatchMain {
+    private static final Logger LOGGER = Logger.getLogger(BatchMain.class.getName());
+
+    private static final String USAGE = String.join("\n",
+        "Usage: BatchMain --endpoint apod|neo|epic --start YYYY-MM-DD [--end YYYY-MM-DD] --out FILE",
+        "                 [--checkpoint FILE] [--parallelism N] [--media DIR]",
+        "",
+        "  --end defaults to --start, a single day",
+        "",
+        "  apod  one JSON object per line",
+        "  neo   CSV, one row per close approach",
+        "  epic  one JSON object per line, with image_url added",
+        "",
+        "Finished chunks are recorded in the checkpoint file (default: FILE.checkpoint);",
+        "running the same command again resumes where it stopped.");
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        Map<String, String> options = parseOptions(args);
+        if (options == null) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        try {
+            BatchJob.Endpoint endpoint = BatchJob.Endpoint.valueOf(options.get("endpoint").toUpperCase(Locale.ROOT));
+            LocalDate start = LocalDate.parse(options.get("start"));
+            LocalDate end = LocalDate.parse(options.getOrDefault("end", options.get("start")));
+
+            NasaService service = new NasaService(new NasaModel(false));
+            BatchJob job = new BatchJob(service, endpoint, start, end, Paths.get(options.get("out")));
+            if (options.containsKey("checkpoint")) {
+                job.setCheckpoint(Paths.get(options.get("checkpoint")));
+            }
+            if (options.containsKey("parallelism")) {
+                job.setParallelism(Integer.parseInt(options.get("parallelism")));
+            }
+            if (options.containsKey("media")) {
+                job.setMediaDirectory(Paths.get(options.get("media")));
+            }
+
+            BatchJob.Result result = job.run();
+            service.shutdown();
+            System.out.println(result);
+            System.exit(result.failed() == 0 ? 0 : 1);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            System.err.println("Invalid argument: " + e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Batch job failed", e);
+            System.exit(1);
+        }
+    }
+
+    // Returns null when the arguments are incomplete or malformed
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                return null;
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        if (!options.containsKey("endpoint") || !options.containsKey("start") || !options.containsKey("out")) {
+            return null;
+        }
+        return options;
+    }
+}
@@ -1,86 +1,133 @@
 package com.nasa;
 
 import com.nasa.controller.NasaController;
+import com.nasa.controller.NasaService;
+import com.nasa.metrics.Metrics;
 import com.nasa.model.NasaModel;
+import com.nasa.view.EdtWatchdog;
 import com.nasa.view.NasaView;
-import java.io.File;
-import java.util.logging.ConsoleHandler;
-import java.util.logging.FileHandler;
+import com.nasa.view.TimingRepaintManager;
+import java.awt.GraphicsEnvironment;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.logging.SimpleFormatter;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 
 public class Main {
     private static final Logger LOGGER = Logger.getLogger(Main.class.getName());
+    // Exit as soon as the window is up and the backend is ready: used for the AppCDS
+    // training run and by the startup benchmark
+    private static final boolean EXIT_AFTER_STARTUP = Boolean.getBoolean("nasa.startup.exit");
+    private static final String LOG_FILE = "nasa_explorer.log";
+    private static final long DEFAULT_LOG_MAX_KB = 10 * 1024;
+    private static final int DEFAULT_LOG_FILES = 5;
+    private static final int DEFAULT_LOG_BUFFER = 8192;
 
     public static void main(String[] args) {
+        if (args.length > 0 && "batch".equals(args[0])) {
+            BatchMain.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         setupLogging();
         LOGGER.info("Starting NASA Explorer application");
-        
+        LOGGER.info("Working directory: " + System.getProperty("user.dir"));
+
+        // The model (disk cache, text index) and the service (API key lookup, HttpClient,
+        // Jackson) are built off the EDT while the window is put on screen
+        CompletableFuture<NasaService> backend = CompletableFuture.supplyAsync(() -> new NasaService(new NasaModel()));
+
+        if (EXIT_AFTER_STARTUP && GraphicsEnvironment.isHeadless()) {
+            // Training run on a machine without a display: only the background half applies
+            backend.join();
+            LOGGER.info("Backend ready after " + sinceLaunch() + " ms (headless)");
+            System.exit(0);
+        }
+
         try {
-            // Log working directory and .env file location
-            String workingDir = System.getProperty("user.dir");
-            LOGGER.info("Working directory: " + workingDir);
-            File envFile = new File(workingDir + "/.env");
-            LOGGER.info(".env file exists: " + envFile.exists());
-            if (envFile.exists()) {
-                LOGGER.info(".env file path: " + envFile.getAbsolutePath());
-                LOGGER.info(".env file can read: " + envFile.canRead());
+            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Could not set the system look and feel", e);
+        }
+
+        CompletableFuture<Void> firstFrame = new CompletableFuture<>();
+        SwingUtilities.invokeLater(() -> {
+            try {
+                TimingRepaintManager.install();
+                EdtWatchdog.install();
+                NasaView view = new NasaView();
+                view.setControlsEnabled(false);
+                view.addWindowListener(new WindowAdapter() {
+                    @Override
+                    public void windowOpened(WindowEvent e) {
+                        LOGGER.info("First frame after " + sinceLaunch() + " ms");
+                        firstFrame.complete(null);
+                    }
+                });
+                view.setVisible(true);
+
+                backend.whenComplete((service, error) -> SwingUtilities.invokeLater(() -> {
+                    if (error != null) {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        LOGGER.log(Level.SEVERE, "Error creating application components", cause);
+                        view.displayData("NASA Explorer could not start: " + cause.getMessage());
+                        return;
+                    }
+                    new NasaController(service.getModel(), view, service);
+                    view.setControlsEnabled(true);
+                    LOGGER.info("Application ready after " + sinceLaunch() + " ms");
+                }));
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Error creating application components", e);
             }
+        });
 
-            // Set system look and feel
-            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
-            LOGGER.info("Set system look and feel");
+        // The MBeans pull in JMX, so they wait until the window is up
+        firstFrame.thenRunAsync(Metrics::start);
 
-            // Launch the application
-            SwingUtilities.invokeLater(() -> {
-                try {
-                    LOGGER.info("Creating application components");
-                    NasaModel model = new NasaModel();
-                    NasaView view = new NasaView();
-                    new NasaController(model, view);
-                    LOGGER.info("Application components created successfully");
-                    
-                    view.setVisible(true);
-                    LOGGER.info("Application window is now visible");
-                } catch (Exception e) {
-                    LOGGER.log(Level.SEVERE, "Error creating application components", e);
-                }
-            });
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error during application startup", e);
+        if (EXIT_AFTER_STARTUP) {
+            CompletableFuture.allOf(firstFrame, backend).whenComplete((done, error) -> System.exit(error == null ? 0 : 1));
         }
     }
 
+    // Milliseconds since the JVM was created. Only called once the window is up, so loading
+    // the management classes does not count against startup.
+    private static long sinceLaunch() {
+        return System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+
+    // Everything goes through one AsyncLogHandler, which writes the log file and the console
+    // from its own thread. The defaults (10 MB per file, 5 old files, 8192 buffered records,
+    // drop on overflow) can be changed with nasa.log.max.kb, nasa.log.files, nasa.log.buffer
+    // and nasa.log.overflow=block; nasa.log.dir moves the directory.
     private static void setupLogging() {
         try {
-            // Get the user's home directory
-            String userHome = System.getProperty("user.home");
-            String logDir = userHome + "/Library/Logs/NasaExplorer";
-            
-            // Create the log directory if it doesn't exist
-            new File(logDir).mkdirs();
-            
-            // Create FileHandler
-            FileHandler fileHandler = new FileHandler(logDir + "/nasa_explorer.log", true);
-            fileHandler.setFormatter(new SimpleFormatter());
-            
-            // Create ConsoleHandler
-            ConsoleHandler consoleHandler = new ConsoleHandler();
-            consoleHandler.setFormatter(new SimpleFormatter());
-            
-            // Configure the root logger
+            AsyncLogHandler.Overflow overflow =
+                AsyncLogHandler.Overflow.valueOf(System.getProperty("nasa.log.overflow", "drop").toUpperCase(Locale.ROOT));
+            AsyncLogHandler handler = new AsyncLogHandler(AsyncLogHandler.defaultDirectory(), LOG_FILE,
+                Long.getLong("nasa.log.max.kb", DEFAULT_LOG_MAX_KB) * 1024,
+                Integer.getInteger("nasa.log.files", DEFAULT_LOG_FILES),
+                Integer.getInteger("nasa.log.buffer", DEFAULT_LOG_BUFFER), overflow, true);
+
+            // Replaces the JDK's default console handler rather than writing everything twice
             Logger rootLogger = Logger.getLogger("");
-            rootLogger.addHandler(fileHandler);
-            rootLogger.addHandler(consoleHandler);
+            for (Handler existing : rootLogger.getHandlers()) {
+                rootLogger.removeHandler(existing);
+                existing.close();
+            }
+            rootLogger.addHandler(handler);
             rootLogger.setLevel(Level.INFO);
-            
-            LOGGER.info("Logging setup completed. Log file: " + logDir + "/nasa_explorer.log");
+
+            LOGGER.info("Logging setup completed. Log file: " + handler.getFile());
         } catch (Exception e) {
             System.err.println("Failed to setup logging: " + e.getMessage());
             e.printStackTrace();
         }
     }
-} 
\ No newline at end of file
+}
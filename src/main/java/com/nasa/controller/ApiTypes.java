@@ -0,0 +1,83 @@
+package com.nasa.controller;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.List;
+
+// Wire shapes of the API responses, bound directly by Jackson. Only the fields the app
+// reads are declared; everything else is skipped while parsing. Any field may be null
+// here, ResponseParser decides what a missing value means.
+final class ApiTypes {
+    private ApiTypes() {
+    }
+
+    // api.nasa.gov reports errors either as {"error": {...}} or {"code": 400, "msg": "..."}
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record ApodEntry(
+        String date,
+        String title,
+        String explanation,
+        @JsonProperty("media_type") String mediaType,
+        String url,
+        String hdurl,
+        String copyright,
+        JsonNode error,
+        String msg
+    ) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record RoverPhotoPage(List<RoverPhotoEntry> photos, JsonNode errors, JsonNode error) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record RoverPhotoEntry(
+        long id,
+        int sol,
+        Named camera,
+        @JsonProperty("img_src") String imgSrc,
+        @JsonProperty("earth_date") String earthDate,
+        Named rover
+    ) {
+    }
+
+    // Both the rover and camera objects; only the camera has a full_name
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record Named(String name, @JsonProperty("full_name") String fullName) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record EpicEntry(String identifier, String image, String caption, String date) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record LibrarySearch(LibraryCollection collection) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record LibraryCollection(List<LibraryEntry> items, LibraryMetadata metadata, List<Link> links) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record LibraryMetadata(@JsonProperty("total_hits") long totalHits) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record LibraryEntry(String href, List<LibraryData> data, List<Link> links) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record LibraryData(
+        @JsonProperty("nasa_id") String nasaId,
+        String title,
+        String description,
+        @JsonProperty("media_type") String mediaType,
+        @JsonProperty("date_created") String dateCreated
+    ) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record Link(String href, String rel) {
+    }
+}
@@ -0,0 +1,168 @@
+package com.nasa.controller;
+
+import com.nasa.model.Apod;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Browses APOD by date. Days are loaded a calendar month at a time with one
+// start_date/end_date request, which NasaService also files under each day's own URL.
+// While the user moves through a month, the adjacent month is requested in the
+// background before they reach it, and the images of the neighbouring days are
+// downloaded ahead. Stepping through the archive a day at a time then never waits on
+// the network.
+public class ApodArchive {
+    private static final Logger LOGGER = Logger.getLogger(ApodArchive.class.getName());
+    public static final LocalDate FIRST_DAY = LocalDate.of(1995, 6, 16);
+    // Months kept parsed in memory; evicted ones are still in the response caches
+    private static final int MAX_MONTHS = 36;
+    // The adjacent month is requested once the user is this close to it
+    private static final int MONTH_PREFETCH_DAYS = 7;
+    // Days either side of the current one whose images are downloaded ahead
+    private static final int IMAGE_PREFETCH_DAYS = 2;
+    // A month that failed to load is not asked for again until this has passed; days in it
+    // are fetched one at a time meanwhile
+    private static final long FAILED_MONTH_RETRY_NANOS = TimeUnit.MINUTES.toNanos(2);
+    // The API's calendar, which rejects any later end_date
+    private static final ZoneId API_ZONE = ZoneId.of("America/New_York");
+
+    private final NasaService service;
+    // Access ordered, guarded by itself. A failed month is requested again on next use.
+    private final Map<YearMonth, Month> months = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<YearMonth, Month> eldest) {
+            return size() > MAX_MONTHS;
+        }
+    };
+    private final ExecutorService imagePrefetcher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "apod-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ApodArchive(NasaService service) {
+        this.service = service;
+    }
+
+    // Today as far as the API is concerned; ahead of US Eastern time the local date is not out yet
+    public static LocalDate today() {
+        return LocalDate.now(API_ZONE);
+    }
+
+    public static boolean isAvailable(LocalDate date) {
+        return !date.isBefore(FIRST_DAY) && !date.isAfter(today());
+    }
+
+    public CompletableFuture<Apod> get(LocalDate date) {
+        return month(YearMonth.from(date), RateLimiter.Priority.INTERACTIVE)
+            .handle((days, error) -> days != null ? days.get(date) : null)
+            // Not in the batch (today's entry not out yet, a gap in the archive, or the batch
+            // failed): the single-date request either finds it or reports why not
+            .thenCompose(apod -> apod != null ? CompletableFuture.completedFuture(apod) : service.apod(date));
+    }
+
+    public void prefetchAround(LocalDate date) {
+        YearMonth month = YearMonth.from(date);
+        if (date.getDayOfMonth() <= MONTH_PREFETCH_DAYS) {
+            month(month.minusMonths(1), RateLimiter.Priority.BACKGROUND);
+        }
+        if (date.getDayOfMonth() > month.lengthOfMonth() - MONTH_PREFETCH_DAYS) {
+            month(month.plusMonths(1), RateLimiter.Priority.BACKGROUND);
+        }
+        for (int offset = 1; offset <= IMAGE_PREFETCH_DAYS; offset++) {
+            prefetchImage(date.plusDays(offset));
+            prefetchImage(date.minusDays(offset));
+        }
+    }
+
+    private void prefetchImage(LocalDate date) {
+        if (!isAvailable(date)) {
+            return;
+        }
+        month(YearMonth.from(date), RateLimiter.Priority.BACKGROUND).thenAccept(days -> {
+            Apod apod = days.get(date);
+            if (apod == null || apod.isVideo()) {
+                return;
+            }
+            imagePrefetcher.execute(() -> {
+                try {
+                    service.loadImageBytes(apod.url(), RateLimiter.Priority.BACKGROUND);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (IOException | RuntimeException e) {
+                    LOGGER.log(Level.FINE, "Could not prefetch " + apod.url(), e);
+                }
+            });
+        });
+    }
+
+    private CompletableFuture<Map<LocalDate, Apod>> month(YearMonth month, RateLimiter.Priority priority) {
+        synchronized (months) {
+            Month loaded = months.get(month);
+            if (loaded != null) {
+                if (loaded.days.isCompletedExceptionally()) {
+                    long failedAt = loaded.failedAt;
+                    // Zero while the failure is still being recorded
+                    if (failedAt == 0 || System.nanoTime() - failedAt < FAILED_MONTH_RETRY_NANOS) {
+                        return loaded.days;
+                    }
+                } else if (loaded.days.isDone() || priority == loaded.priority
+                        || priority == RateLimiter.Priority.BACKGROUND) {
+                    return loaded.days;
+                }
+                // Otherwise someone is now waiting on a month still queued as a prefetch:
+                // asking again at interactive priority joins the same exchange and moves
+                // it up the rate limiter's queue
+            }
+            LocalDate start = month.atDay(1).isBefore(FIRST_DAY) ? FIRST_DAY : month.atDay(1);
+            LocalDate today = today();
+            LocalDate end = month.atEndOfMonth().isAfter(today) ? today : month.atEndOfMonth();
+            if (start.isAfter(end)) {
+                return CompletableFuture.completedFuture(Map.of());
+            }
+            LOGGER.fine("Loading APOD " + start + " to " + end);
+            Month request = new Month(service.apodRange(start, end, priority).thenApply(ApodArchive::byDate), priority);
+            request.days.whenComplete((days, error) -> {
+                if (error != null) {
+                    request.failedAt = System.nanoTime();
+                }
+            });
+            months.put(month, request);
+            return request.days;
+        }
+    }
+
+    private static final class Month {
+        final CompletableFuture<Map<LocalDate, Apod>> days;
+        final RateLimiter.Priority priority;
+        volatile long failedAt;
+
+        Month(CompletableFuture<Map<LocalDate, Apod>> days, RateLimiter.Priority priority) {
+            this.days = days;
+            this.priority = priority;
+        }
+    }
+
+    private static Map<LocalDate, Apod> byDate(List<Apod> apods) {
+        Map<LocalDate, Apod> days = new HashMap<>(apods.size() * 2);
+        for (Apod apod : apods) {
+            apod.date().ifPresent(date -> days.put(LocalDate.parse(date), apod));
+        }
+        return days;
+    }
+
+    public void shutdown() {
+        imagePrefetcher.shutdownNow();
+    }
+}
@@ -0,0 +1,391 @@
+package com.nasa.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.nasa.model.EpicCollection;
+import com.nasa.model.NeoApproach;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Pulls a date range from one endpoint without a UI. The range is cut into chunks (a month
+// of APOD, a 7-day NEO window, a day of EPIC), chunks run on a bounded pool, and each one
+// is appended to the output as soon as it completes. Finished chunks are recorded in a
+// checkpoint file so an interrupted job picks up where it stopped.
+public class BatchJob {
+    private static final Logger LOGGER = Logger.getLogger(BatchJob.class.getName());
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long BASE_BACKOFF_MILLIS = 2000;
+    private static final long PROGRESS_INTERVAL_SECONDS = 5;
+    private static final String NEO_CSV_HEADER = "id,name,approach_date,epoch_millis,diameter_min_m,diameter_max_m,"
+        + "miss_distance_km,miss_distance_lunar,velocity_km_s,hazardous\n";
+
+    public enum Endpoint {
+        APOD,
+        NEO,
+        EPIC
+    }
+
+    private final NasaService service;
+    private final ObjectMapper objectMapper;
+    private final Endpoint endpoint;
+    private final LocalDate start;
+    private final LocalDate end;
+    private final Path output;
+    private Path checkpoint;
+    private Path mediaDirectory;
+    private int parallelism = 4;
+
+    private final LongAdder items = new LongAdder();
+    private final AtomicInteger completedChunks = new AtomicInteger();
+    private final AtomicInteger failedChunks = new AtomicInteger();
+    private BufferedWriter outputWriter;
+    private BufferedWriter checkpointWriter;
+
+    public BatchJob(NasaService service, Endpoint endpoint, LocalDate start, LocalDate end, Path output) {
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("End date is before start date");
+        }
+        this.service = service;
+        this.objectMapper = service.getObjectMapper();
+        this.endpoint = endpoint;
+        this.start = start;
+        this.end = end;
+        this.output = output;
+        this.checkpoint = output.resolveSibling(output.getFileName() + ".checkpoint");
+    }
+
+    public void setCheckpoint(Path checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    // APOD and EPIC images are saved here when set; existing files are not downloaded again
+    public void setMediaDirectory(Path mediaDirectory) {
+        this.mediaDirectory = mediaDirectory;
+    }
+
+    public void setParallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        this.parallelism = parallelism;
+    }
+
+    public Result run() throws IOException, InterruptedException {
+        List<LocalDate[]> chunks = chunks();
+        Set<String> done = readCheckpoint();
+        List<LocalDate[]> pending = new ArrayList<>();
+        for (LocalDate[] chunk : chunks) {
+            if (!done.contains(checkpointLine(chunk))) {
+                pending.add(chunk);
+            }
+        }
+        int skipped = chunks.size() - pending.size();
+        LOGGER.info(String.format("%s %s..%s: %d chunks, %d already done, parallelism %d",
+            name(), start, end, chunks.size(), skipped, parallelism));
+        if (mediaDirectory != null) {
+            Files.createDirectories(mediaDirectory);
+        }
+
+        boolean newOutput = !Files.exists(output) || Files.size(output) == 0;
+        long startNanos = System.nanoTime();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, daemonThreads("batch-worker-"));
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(daemonThreads("batch-progress-"));
+        try (BufferedWriter out = Files.newBufferedWriter(output, StandardCharsets.UTF_8,
+                 StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+             BufferedWriter checkpointOut = Files.newBufferedWriter(checkpoint, StandardCharsets.UTF_8,
+                 StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            this.outputWriter = out;
+            this.checkpointWriter = checkpointOut;
+            if (newOutput && endpoint == Endpoint.NEO) {
+                out.write(NEO_CSV_HEADER);
+                out.flush();
+            }
+            progress.scheduleAtFixedRate(() -> reportProgress(pending.size(), startNanos),
+                PROGRESS_INTERVAL_SECONDS, PROGRESS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+
+            List<Future<?>> futures = new ArrayList<>(pending.size());
+            for (LocalDate[] chunk : pending) {
+                futures.add(workers.submit(() -> runChunk(chunk)));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    // runChunk records its own failures, anything here is a bug
+                    LOGGER.log(Level.SEVERE, "Batch worker failed", e.getCause());
+                }
+            }
+        } finally {
+            progress.shutdownNow();
+            workers.shutdownNow();
+        }
+
+        Result result = new Result(chunks.size(), skipped, failedChunks.get(), items.sum(),
+            Duration.ofNanos(System.nanoTime() - startNanos));
+        LOGGER.info(name() + " finished: " + result);
+        return result;
+    }
+
+    private void runChunk(LocalDate[] chunk) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                String text = fetchChunk(chunk[0], chunk[1]);
+                synchronized (this) {
+                    // Output first, then the checkpoint: a crash in between repeats the
+                    // chunk on resume rather than losing it
+                    outputWriter.write(text);
+                    outputWriter.flush();
+                    checkpointWriter.write(checkpointLine(chunk));
+                    checkpointWriter.newLine();
+                    checkpointWriter.flush();
+                }
+                // Every item is written as exactly one line
+                items.add(text.chars().filter(c -> c == '\n').count());
+                completedChunks.incrementAndGet();
+                return;
+            } catch (Exception e) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (!isRetryable(cause) || attempt >= MAX_ATTEMPTS) {
+                    LOGGER.log(Level.WARNING, name() + " chunk " + chunk[0] + " failed, it will be retried on the next run", cause);
+                    failedChunks.incrementAndGet();
+                    return;
+                }
+                long backoff = BASE_BACKOFF_MILLIS << (attempt - 1);
+                long delay = cause instanceof HttpStatusException
+                    ? ((HttpStatusException) cause).getRetryAfter().map(Duration::toMillis).orElse(backoff)
+                    : backoff;
+                try {
+                    Thread.sleep(delay + ThreadLocalRandom.current().nextLong(BASE_BACKOFF_MILLIS / 2));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // Throttling, server errors and network failures (timeouts, resets) are worth another
+    // try; a body that does not parse will not parse the next time either
+    private static boolean isRetryable(Throwable cause) {
+        if (cause instanceof HttpStatusException) {
+            return ((HttpStatusException) cause).isRetryable();
+        }
+        return cause instanceof IOException && !(cause instanceof JsonProcessingException);
+    }
+
+    private String fetchChunk(LocalDate from, LocalDate to) throws IOException, InterruptedException {
+        switch (endpoint) {
+            case APOD:
+                return fetchApod(from, to);
+            case NEO:
+                return fetchNeo(from, to);
+            case EPIC:
+                return fetchEpic(from);
+            default:
+                throw new IllegalStateException("Unknown endpoint " + endpoint);
+        }
+    }
+
+    private String fetchApod(LocalDate from, LocalDate to) throws IOException, InterruptedException {
+        String body = service.fetch(service.request(service.apodRangeUrl(from, to)).build()).join();
+        StringBuilder lines = new StringBuilder(body.length() + 64);
+        for (JsonNode entry : readArray(body)) {
+            if (mediaDirectory != null && "image".equals(entry.path("media_type").asText())) {
+                String url = entry.path("url").asText(null);
+                if (url != null) {
+                    saveMedia(url, entry.path("date").asText() + extension(url));
+                }
+            }
+            lines.append(objectMapper.writeValueAsString(entry)).append('\n');
+        }
+        return lines.toString();
+    }
+
+    private String fetchNeo(LocalDate from, LocalDate to) {
+        StringBuilder rows = new StringBuilder(16 * 1024);
+        service.streamNeoFeed(from, to, neo -> appendCsv(rows, neo)).join();
+        return rows.toString();
+    }
+
+    private String fetchEpic(LocalDate day) throws IOException, InterruptedException {
+        String body = service.fetch(service.request(service.epicDateUrl(EpicCollection.NATURAL, day))
+            .header("Accept", "application/json")
+            .build()).join();
+        StringBuilder lines = new StringBuilder(body.length() + 256);
+        for (JsonNode entry : readArray(body)) {
+            String image = entry.path("image").asText(null);
+            if (image != null && entry instanceof ObjectNode) {
+                String imageUrl = NasaService.epicImageUrl(EpicCollection.NATURAL, day, image);
+                ((ObjectNode) entry).put("image_url", imageUrl);
+                if (mediaDirectory != null) {
+                    saveMedia(imageUrl, image + ".png");
+                }
+            }
+            lines.append(objectMapper.writeValueAsString(entry)).append('\n');
+        }
+        return lines.toString();
+    }
+
+    private JsonNode readArray(String body) throws IOException {
+        JsonNode root = objectMapper.readTree(body);
+        if (!root.isArray()) {
+            throw new IOException("Expected a JSON array, got: "
+                + (body.length() > 200 ? body.substring(0, 200) + "..." : body));
+        }
+        return root;
+    }
+
+    private void saveMedia(String url, String fileName) throws IOException, InterruptedException {
+        Path target = mediaDirectory.resolve(fileName);
+        if (Files.exists(target)) {
+            return;
+        }
+        byte[] data = service.loadImageBytes(url);
+        Path temp = Files.createTempFile(mediaDirectory, fileName, ".part");
+        Files.write(temp, data);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String extension(String url) {
+        int slash = url.lastIndexOf('/');
+        int dot = url.lastIndexOf('.');
+        return dot > slash ? url.substring(dot).toLowerCase(Locale.ROOT) : ".jpg";
+    }
+
+    private static void appendCsv(StringBuilder out, NeoApproach neo) {
+        out.append(neo.id()).append(',');
+        appendCsvText(out, neo.name());
+        out.append(',').append(neo.approachDate())
+            .append(',').append(neo.epochMillis()).append(',');
+        appendCsvNumber(out, neo.diameterMinMeters());
+        out.append(',');
+        appendCsvNumber(out, neo.diameterMaxMeters());
+        out.append(',');
+        appendCsvNumber(out, neo.missDistanceKm());
+        out.append(',');
+        appendCsvNumber(out, neo.missDistanceLunar());
+        out.append(',');
+        appendCsvNumber(out, neo.velocityKmPerSec());
+        out.append(',').append(neo.hazardous()).append('\n');
+    }
+
+    private static void appendCsvText(StringBuilder out, String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            out.append(value);
+            return;
+        }
+        out.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    // Unknown values are left empty rather than written as NaN
+    private static void appendCsvNumber(StringBuilder out, double value) {
+        if (!Double.isNaN(value)) {
+            out.append(value);
+        }
+    }
+
+    private List<LocalDate[]> chunks() {
+        List<LocalDate[]> chunks = new ArrayList<>();
+        if (endpoint == Endpoint.NEO) {
+            // Same windows as the GUI, clipped to the requested range
+            for (NeoRangeFetcher.Window window : NeoRangeFetcher.windows(start, end)) {
+                chunks.add(new LocalDate[] {max(window.start(), start), min(window.end(), end)});
+            }
+        } else if (endpoint == Endpoint.APOD) {
+            for (LocalDate month = start.withDayOfMonth(1); !month.isAfter(end); month = month.plusMonths(1)) {
+                chunks.add(new LocalDate[] {max(month, start), min(month.plusMonths(1).minusDays(1), end)});
+            }
+        } else {
+            for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+                chunks.add(new LocalDate[] {day, day});
+            }
+        }
+        return chunks;
+    }
+
+    private Set<String> readCheckpoint() throws IOException {
+        Set<String> done = new HashSet<>();
+        if (Files.exists(checkpoint)) {
+            for (String line : Files.readAllLines(checkpoint, StandardCharsets.UTF_8)) {
+                done.add(line.trim());
+            }
+        }
+        return done;
+    }
+
+    private String checkpointLine(LocalDate[] chunk) {
+        return name() + " " + chunk[0] + " " + chunk[1];
+    }
+
+    private void reportProgress(int total, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        long count = items.sum();
+        LOGGER.info(String.format("%s: %d/%d chunks, %d failed, %d items, %.1f items/s",
+            name(), completedChunks.get(), total, failedChunks.get(), count, seconds > 0 ? count / seconds : 0.0));
+    }
+
+    private String name() {
+        return endpoint.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public record Result(int chunks, int skipped, int failed, long items, Duration elapsed) {
+        public double itemsPerSecond() {
+            double seconds = elapsed.toNanos() / 1e9;
+            return seconds > 0 ? items / seconds : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("chunks=%d skipped=%d failed=%d items=%d elapsed=%.1fs throughput=%.1f items/s",
+                chunks, skipped, failed, items, elapsed.toNanos() / 1e9, itemsPerSecond());
+        }
+    }
+}
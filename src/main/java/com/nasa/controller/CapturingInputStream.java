@@ -0,0 +1,53 @@
+package com.nasa.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+// Keeps a copy of everything read through it, so a streamed body can still be cached
+class CapturingInputStream extends FilterInputStream {
+    private final ByteArrayOutputStream copy = new ByteArrayOutputStream(64 * 1024);
+
+    CapturingInputStream(InputStream in) {
+        super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            copy.write(b);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int n = super.read(buffer, offset, length);
+        if (n > 0) {
+            copy.write(buffer, offset, n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // Route skips through read() so the copy stays complete
+        long skipped = 0;
+        byte[] scratch = new byte[8192];
+        while (skipped < n) {
+            int read = read(scratch, 0, (int) Math.min(scratch.length, n - skipped));
+            if (read < 0) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    String captured() {
+        return copy.toString(StandardCharsets.UTF_8);
+    }
+}
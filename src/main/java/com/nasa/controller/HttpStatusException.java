@@ -0,0 +1,50 @@
+package com.nasa.controller;
+
+import java.io.IOException;
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.util.Optional;
+
+// Raised when an API answers with a non-success status, so callers can react to the
+// status (e.g. back off on 429) instead of trying to parse an error body
+public class HttpStatusException extends IOException {
+    private final int statusCode;
+    private final Duration retryAfter;
+
+    public HttpStatusException(int statusCode, String body, HttpHeaders headers) {
+        super(describe(statusCode, body));
+        this.statusCode = statusCode;
+        this.retryAfter = headers.firstValue("Retry-After")
+            .flatMap(HttpStatusException::parseSeconds)
+            .orElse(null);
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public boolean isRetryable() {
+        return statusCode == 429 || statusCode == 503;
+    }
+
+    public Optional<Duration> getRetryAfter() {
+        return Optional.ofNullable(retryAfter);
+    }
+
+    // api.nasa.gov answers an exhausted quota with a long JSON body nobody needs to read
+    private static String describe(int statusCode, String body) {
+        if (statusCode == 429) {
+            return "API rate limit exceeded (HTTP 429), please try again later";
+        }
+        return "HTTP " + statusCode + (body == null || body.isEmpty() ? "" : ": " + body);
+    }
+
+    private static Optional<Duration> parseSeconds(String value) {
+        try {
+            return Optional.of(Duration.ofSeconds(Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            // HTTP-date form, fall back to our own backoff
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package com.nasa.controller;
+
+import com.nasa.model.Apod;
+import com.nasa.model.EpicCollection;
+import com.nasa.model.EpicImage;
+import com.nasa.model.LibraryItem;
+import com.nasa.model.LibraryPage;
+import com.nasa.model.ResponseCache;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Warms the caches for what the user is likely to do next while the app sits idle: today's
+// APOD and its picture, the latest EPIC day and its frames, the current NEO week, and the
+// previews of the next Image Library page. Targets are tried in the order the user has
+// tended to move on from their last action, one request at a time at background priority,
+// so api.nasa.gov requests queue behind clicks and never touch the limiter's reserve.
+// Work stops between requests as soon as an interactive request starts, and picks up again
+// once nothing has been asked for a while (nasa.prefetch.idle.ms, 0 turns prefetching off).
+// Every entry fetched ahead is remembered; an interactive request for it counts as a hit.
+// A target whose entries mostly go unused is only tried now and then.
+public class IdlePrefetcher {
+    private static final Logger LOGGER = Logger.getLogger(IdlePrefetcher.class.getName());
+    public static final long DEFAULT_IDLE_MILLIS = 3000;
+    private static final long TICK_MILLIS = 1000;
+    // Cached entries are checked again this often even if the user does nothing
+    private static final long PASS_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(10);
+    private static final long REQUEST_TIMEOUT_SECONDS = 60;
+    private static final int DEFAULT_MAX_IMAGES = 12;
+    // Prefetched entries followed for hits; older ones count as unused
+    private static final int MAX_TRACKED = 512;
+    // Below this hit rate, after enough entries to judge, a target only runs every few passes
+    private static final int MIN_SAMPLES = 8;
+    private static final double MIN_HIT_RATE = 0.15;
+    private static final int PROBE_PASSES = 6;
+    // Only spend api.nasa.gov quota while more than this share of it is left
+    private static final double MIN_QUOTA_SHARE = 0.5;
+
+    public enum Target {
+        APOD,
+        EPIC,
+        NEO,
+        LIBRARY
+    }
+
+    // Where users usually go next before there is any history of their own
+    private static final Map<String, Target> USUAL_NEXT = Map.of("APOD", Target.EPIC, "EPIC", Target.NEO);
+
+    public record Stats(Target target, long warmed, long hits, long unused) {
+        public double hitRate() {
+            return warmed == 0 ? 0 : (double) hits / warmed;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %d/%d used (%.0f%%)",
+                target.name().toLowerCase(Locale.ROOT), hits, warmed, hitRate() * 100);
+        }
+    }
+
+    private final NasaService service;
+    private final long idleNanos;
+    private final int maxImages;
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicInteger interactiveInFlight = new AtomicInteger();
+    private volatile long lastActivity = System.nanoTime();
+    private volatile String lastFeature;
+    // Set when the user did something new, so the next idle moment runs a pass straight away
+    private volatile boolean dirty = true;
+    private volatile EpicCollection epicCollection = EpicCollection.NATURAL;
+    private volatile LibraryNext libraryNext;
+
+    // How often each feature followed each other one, guarded by itself
+    private final Map<String, EnumMap<Target, Integer>> transitions = new HashMap<>();
+    // Prefetched cache key to the target that fetched it, oldest first, guarded by itself
+    private final Map<String, Target> warmed = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Target> eldest) {
+            if (size() <= MAX_TRACKED) {
+                return false;
+            }
+            counters.get(eldest.getValue()).unused.increment();
+            return true;
+        }
+    };
+    private final Map<Target, Counters> counters = new EnumMap<>(Target.class);
+
+    // Scheduler thread only
+    private long lastPass;
+    private int passes;
+
+    private record LibraryNext(String query, int page) {
+    }
+
+    private static final class Counters {
+        final LongAdder warmed = new LongAdder();
+        final LongAdder hits = new LongAdder();
+        final LongAdder unused = new LongAdder();
+    }
+
+    public IdlePrefetcher(NasaService service, long idleMillis, int maxImages) {
+        this.service = service;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+        this.maxImages = maxImages;
+        for (Target target : Target.values()) {
+            counters.put(target, new Counters());
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "idle-prefetch");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        service.setInteractiveListener(this::requested);
+        if (idleMillis > 0) {
+            scheduler.scheduleWithFixedDelay(this::tick, idleMillis, TICK_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public static IdlePrefetcher fromProperties(NasaService service) {
+        return new IdlePrefetcher(service, Long.getLong("nasa.prefetch.idle.ms", DEFAULT_IDLE_MILLIS),
+            Integer.getInteger("nasa.prefetch.images", DEFAULT_MAX_IMAGES));
+    }
+
+    // A UI action: holds prefetching off until the future completes and the user has been
+    // quiet for the idle period
+    public void interactive(String feature, CompletableFuture<?> future) {
+        userAction(feature);
+        interactiveInFlight.incrementAndGet();
+        future.whenComplete((result, error) -> {
+            interactiveInFlight.decrementAndGet();
+            lastActivity = System.nanoTime();
+        });
+    }
+
+    public void userAction(String feature) {
+        lastActivity = System.nanoTime();
+        String previous = lastFeature;
+        lastFeature = feature;
+        dirty = true;
+        Target next = target(feature);
+        if (previous != null && next != null && !previous.equals(feature)) {
+            synchronized (transitions) {
+                transitions.computeIfAbsent(previous, key -> new EnumMap<>(Target.class)).merge(next, 1, Integer::sum);
+            }
+        }
+    }
+
+    public void setEpicCollection(EpicCollection collection) {
+        this.epicCollection = collection;
+    }
+
+    // Page 0 when there is no further page to load
+    public void setLibraryNext(String query, int page) {
+        this.libraryNext = query != null && page > 0 ? new LibraryNext(query, page) : null;
+    }
+
+    public List<Stats> getStats() {
+        List<Stats> stats = new ArrayList<>();
+        counters.forEach((target, counter) ->
+            stats.add(new Stats(target, counter.warmed.sum(), counter.hits.sum(), counter.unused.sum())));
+        return stats;
+    }
+
+    // Every interactive request the service answers, from the caches or not
+    private void requested(String key) {
+        lastActivity = System.nanoTime();
+        Target target;
+        synchronized (warmed) {
+            target = warmed.remove(key);
+        }
+        if (target != null) {
+            counters.get(target).hits.increment();
+            LOGGER.fine("Prefetch hit for " + key);
+        }
+    }
+
+    private boolean isIdle() {
+        return interactiveInFlight.get() == 0 && System.nanoTime() - lastActivity >= idleNanos;
+    }
+
+    private void tick() {
+        if (!isIdle() || (!dirty && System.nanoTime() - lastPass < PASS_INTERVAL_NANOS)) {
+            return;
+        }
+        dirty = false;
+        lastPass = System.nanoTime();
+        passes++;
+        long warmedBefore = totalWarmed();
+        boolean finished = true;
+        for (Target target : ranked()) {
+            if (isCold(target) && passes % PROBE_PASSES != 0) {
+                continue;
+            }
+            try {
+                if (!warm(target)) {
+                    finished = false;
+                    break;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | ExecutionException | TimeoutException | RuntimeException e) {
+                LOGGER.log(Level.FINE, "Could not prefetch " + target, e);
+            }
+        }
+        if (!finished) {
+            // Interrupted by the user; carry on from the cached state next time it is quiet
+            dirty = true;
+        }
+        long fetched = totalWarmed() - warmedBefore;
+        if (fetched > 0) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastPass);
+            LOGGER.info("Prefetched " + fetched + " entries in " + millis + " ms; " + getStats());
+        }
+    }
+
+    // Likeliest next feature first; ties keep the declaration order
+    private List<Target> ranked() {
+        String from = lastFeature;
+        Map<Target, Integer> seen;
+        synchronized (transitions) {
+            seen = new EnumMap<>(Target.class);
+            if (from != null && transitions.containsKey(from)) {
+                seen.putAll(transitions.get(from));
+            }
+        }
+        Target usual = from != null ? USUAL_NEXT.get(from) : null;
+        List<Target> order = new ArrayList<>(List.of(Target.values()));
+        order.sort(Comparator.comparing((Target target) -> isCold(target))
+            .thenComparing(target -> -(seen.getOrDefault(target, 0) + (target == usual ? 1 : 0))));
+        return order;
+    }
+
+    private boolean isCold(Target target) {
+        Counters counter = counters.get(target);
+        long count = counter.warmed.sum();
+        return count >= MIN_SAMPLES && (double) counter.hits.sum() / count < MIN_HIT_RATE;
+    }
+
+    // False when it stopped because the user became active
+    private boolean warm(Target target) throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        switch (target) {
+            case APOD: {
+                Apod apod = fetch(target, service.apodUrl(), () -> service.apod(RateLimiter.Priority.BACKGROUND));
+                return apod == null || apod.isVideo() || image(target, apod.url());
+            }
+            case EPIC: {
+                EpicCollection collection = epicCollection;
+                List<EpicImage> images = fetch(target, service.epicLatestUrl(collection),
+                    () -> service.epicImages(collection, RateLimiter.Priority.BACKGROUND));
+                if (images == null || images.isEmpty()) {
+                    return true;
+                }
+                // The first PNG is what the EPIC button shows, the JPEGs are the time-lapse frames
+                List<String> urls = new ArrayList<>();
+                urls.add(images.get(0).imageUrl());
+                images.forEach(image -> urls.add(image.jpegUrl()));
+                return images(target, urls);
+            }
+            case NEO: {
+                LocalDate start = LocalDate.now();
+                LocalDate end = start.plusDays(NeoRangeFetcher.WINDOW_DAYS - 1);
+                // The same request the NEO button makes for its default range
+                for (NeoRangeFetcher.Window window : NeoRangeFetcher.windows(start, end)) {
+                    if (!isIdle()) {
+                        return false;
+                    }
+                    fetch(target, service.neoFeedUrl(window.start(), window.end()),
+                        () -> service.prefetchNeoWindow(window.start(), window.end()));
+                }
+                return true;
+            }
+            case LIBRARY: {
+                LibraryNext next = libraryNext;
+                if (next == null) {
+                    return true;
+                }
+                LibraryPage page = fetch(target, service.libraryUrl(next.query(), next.page()),
+                    () -> service.searchLibrary(next.query(), next.page(), RateLimiter.Priority.BACKGROUND));
+                if (page == null) {
+                    return true;
+                }
+                List<String> urls = new ArrayList<>();
+                for (LibraryItem item : page.items()) {
+                    item.previewUrl().ifPresent(urls::add);
+                }
+                return images(target, urls);
+            }
+            default:
+                return true;
+        }
+    }
+
+    // The parsed response, from the caches or fetched and remembered as warmed. Null when it
+    // would have to come from api.nasa.gov and too little of the quota is left.
+    private <T> T fetch(Target target, String url, Supplier<CompletableFuture<T>> request)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        boolean cached = service.isCached(url);
+        if (!cached && url.startsWith("https://" + NasaService.API_HOST) && !hasQuotaToSpare()) {
+            LOGGER.fine("Not prefetching " + url + ", saving the rate limit for interactive use");
+            return null;
+        }
+        CompletableFuture<T> response = request.get();
+        try {
+            T result = response.get(REQUEST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            if (!cached) {
+                remember(target, ResponseCache.keyFor(url));
+            }
+            return result;
+        } catch (TimeoutException | InterruptedException e) {
+            response.cancel(false);
+            throw e;
+        }
+    }
+
+    private boolean images(Target target, List<String> urls) throws IOException, InterruptedException {
+        for (String url : urls.subList(0, Math.min(urls.size(), maxImages))) {
+            if (!image(target, url)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean image(Target target, String url) throws IOException, InterruptedException {
+        // Without a disk cache there is nowhere to keep the bytes
+        if (service.getModel().getDiskCache() == null) {
+            return true;
+        }
+        if (!isIdle()) {
+            return false;
+        }
+        if (!service.isImageCached(url)) {
+            service.loadImageBytes(url, RateLimiter.Priority.BACKGROUND);
+            remember(target, NasaService.imageCacheKey(url));
+        }
+        return true;
+    }
+
+    private boolean hasQuotaToSpare() {
+        RateLimiter limiter = service.getTransport().getRateLimiter();
+        return limiter == null
+            || (limiter.getQueuedCount() == 0 && limiter.getAvailableTokens() > limiter.getCapacity() * MIN_QUOTA_SHARE);
+    }
+
+    private void remember(Target target, String key) {
+        counters.get(target).warmed.increment();
+        Target previous;
+        synchronized (warmed) {
+            previous = warmed.put(key, target);
+        }
+        if (previous != null) {
+            // Fetched again before anyone asked for it, so the first copy went unused
+            counters.get(previous).unused.increment();
+        }
+    }
+
+    private long totalWarmed() {
+        long total = 0;
+        for (Counters counter : counters.values()) {
+            total += counter.warmed.sum();
+        }
+        return total;
+    }
+
+    private static Target target(String feature) {
+        for (Target target : Target.values()) {
+            if (target.name().equals(feature)) {
+                return target;
+            }
+        }
+        return null;
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        service.setInteractiveListener(null);
+    }
+}
@@ -0,0 +1,234 @@
+package com.nasa.controller;
+
+import com.nasa.model.LibraryItem;
+import com.nasa.model.LibraryPage;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+// Search-as-you-type for the Image Library. Keystrokes are debounced on a scheduler thread
+// and cache lookups are answered there too (never on the EDT), a newer query cancels the request of the one it supersedes, and first
+// pages are kept in a small query cache. A query seen before is answered from the cache
+// without a request. One that adds words to a cached query ("apollo 1" after "apollo") is
+// filtered from it and shown straight away as a provisional result while the real query
+// is sent: the API matches whole words across more fields than a result carries, so the
+// filtered set is only a preview, and a cached partial word ("apol") is never used.
+public class LiveSearch {
+    private static final Logger LOGGER = Logger.getLogger(LiveSearch.class.getName());
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 250;
+    public static final int MIN_QUERY_LENGTH = 2;
+    private static final int CACHE_SIZE = 64;
+
+    // Called on the scheduler thread, or on the thread completing the search; never on the
+    // thread that typed. Provisional results are followed by the real ones.
+    public interface Listener {
+        void onResults(String query, LibraryPage page, boolean provisional);
+
+        void onError(String query, Throwable error);
+    }
+
+    private final Function<String, CompletableFuture<LibraryPage>> search;
+    private final long debounceMillis;
+    private final Listener listener;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, LibraryPage> cache = new LinkedHashMap<>(16, 0.75f, true);
+    // Bumped for every new query; work for an older value is dropped
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+
+    // Guarded by this
+    private Future<?> pending;
+    private CompletableFuture<LibraryPage> inFlight;
+
+    public LiveSearch(Function<String, CompletableFuture<LibraryPage>> search, long debounceMillis, Listener listener) {
+        this.search = search;
+        this.debounceMillis = debounceMillis;
+        this.listener = listener;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "live-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // A keystroke: searches once the text has been stable for the debounce interval
+    public void type(String text) {
+        query(text, debounceMillis);
+    }
+
+    // An explicit search (Enter or the button): no debounce
+    public void submit(String text) {
+        query(text, 0);
+    }
+
+    // Drops any pending or in-flight query without starting a new one
+    public void cancel() {
+        generation.incrementAndGet();
+        cancelPending();
+    }
+
+    private void query(String text, long delayMillis) {
+        String query = normalize(text);
+        long current = generation.incrementAndGet();
+        cancelPending();
+        if (query.length() < MIN_QUERY_LENGTH) {
+            return;
+        }
+        synchronized (this) {
+            pending = scheduler.submit(() -> answer(query, current, delayMillis));
+        }
+    }
+
+    // On the scheduler: answers from the cache straight away, then sends the query once the
+    // debounce interval has passed unless the cache had it all
+    private void answer(String query, long queryGeneration, long delayMillis) {
+        if (queryGeneration != generation.get()) {
+            return;
+        }
+        LibraryPage cached;
+        boolean complete;
+        synchronized (this) {
+            cached = cache.get(query);
+            complete = cached != null;
+            if (cached == null) {
+                LibraryPage prefix = longestCachedPrefix(query);
+                if (prefix != null) {
+                    cached = narrow(prefix, query);
+                }
+            }
+        }
+        if (cached != null) {
+            listener.onResults(query, cached, !complete);
+            if (complete) {
+                cacheHits.increment();
+                return;
+            }
+        }
+
+        synchronized (this) {
+            if (queryGeneration != generation.get()) {
+                return;
+            }
+            pending = scheduler.schedule(() -> send(query, queryGeneration), delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void send(String query, long queryGeneration) {
+        CompletableFuture<LibraryPage> request;
+        synchronized (this) {
+            if (queryGeneration != generation.get()) {
+                return;
+            }
+            requests.increment();
+            request = search.apply(query);
+            inFlight = request;
+        }
+        request.whenComplete((page, error) -> {
+            if (error == null) {
+                synchronized (this) {
+                    cache.put(query, page);
+                    if (cache.size() > CACHE_SIZE) {
+                        Iterator<String> eldest = cache.keySet().iterator();
+                        eldest.next();
+                        eldest.remove();
+                    }
+                }
+            }
+            if (queryGeneration != generation.get()) {
+                return;
+            }
+            if (error == null) {
+                listener.onResults(query, page, false);
+            } else if (!isCancellation(error)) {
+                listener.onError(query, error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error);
+            }
+        });
+    }
+
+    private synchronized void cancelPending() {
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+        if (inFlight != null && inFlight.cancel(false)) {
+            cancelled.increment();
+            LOGGER.fine("Cancelled superseded search");
+        }
+        inFlight = null;
+    }
+
+    // The longest cached query the new one extends by whole words. A query cut off inside a
+    // word says nothing about the longer word: "apol" and "apollo" are different searches.
+    private LibraryPage longestCachedPrefix(String query) {
+        for (int end = query.lastIndexOf(' '); end >= MIN_QUERY_LENGTH; end = query.lastIndexOf(' ', end - 1)) {
+            LibraryPage page = cache.get(query.substring(0, end));
+            if (page != null) {
+                return page;
+            }
+        }
+        return null;
+    }
+
+    // Items whose title or description has every finished word of the query, and a word
+    // starting with the last one, which may still be being typed
+    private static LibraryPage narrow(LibraryPage page, String query) {
+        String[] terms = query.split(" ");
+        List<LibraryItem> matches = new ArrayList<>();
+        for (LibraryItem item : page.items()) {
+            List<String> words = List.of((item.title() + " " + item.description())
+                .toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"));
+            boolean all = true;
+            for (int i = 0; i < terms.length && all; i++) {
+                String term = terms[i];
+                all = i < terms.length - 1
+                    ? words.contains(term)
+                    : words.stream().anyMatch(word -> word.startsWith(term));
+            }
+            if (all) {
+                matches.add(item);
+            }
+        }
+        return new LibraryPage(matches, 1, matches.size(), false);
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isCancellation(Throwable error) {
+        return error instanceof CancellationException || error.getCause() instanceof CancellationException;
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public long getCancelledCount() {
+        return cancelled.sum();
+    }
+
+    public long getCacheHitCount() {
+        return cacheHits.sum();
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -1,21 +1,43 @@
 package com.nasa.controller;
 
+import com.nasa.metrics.CacheGauge;
+import com.nasa.metrics.Metrics;
+import com.nasa.model.Apod;
+import com.nasa.model.DiskCache;
+import com.nasa.model.EpicCollection;
+import com.nasa.model.EpicImage;
+import com.nasa.model.LibraryItem;
+import com.nasa.model.LibraryPage;
 import com.nasa.model.NasaModel;
+import com.nasa.model.NeoApproach;
+import com.nasa.model.NeoStore;
+import com.nasa.model.ResponseCache;
+import com.nasa.model.RoverPhoto;
+import com.nasa.model.TextIndex;
 import com.nasa.view.NasaView;
+import com.nasa.view.ThumbnailGallery;
+import com.nasa.view.TimeLapsePlayer;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.net.URI;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import javax.swing.ImageIcon;
 import java.net.URL;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.JsonNode;
-import io.github.cdimascio.dotenv.Dotenv;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
-import java.io.File;
 import javax.swing.JOptionPane;
 import javax.swing.SwingUtilities;
 import java.util.logging.Level;
@@ -25,443 +47,665 @@ public class NasaController {
     private static final Logger LOGGER = Logger.getLogger(NasaController.class.getName());
     private final NasaModel model;
     private final NasaView view;
-    private final HttpClient httpClient;
-    private final ObjectMapper objectMapper;
-    private Dotenv dotenv;
-    private String apiKey;
-    
-    // NASA API endpoints
-    private static final String APOD_URL = "https://api.nasa.gov/planetary/apod";
-    private static final String MARS_ROVER_URL = "https://api.nasa.gov/mars-photos/api/v1/rovers/curiosity/photos";
-    private static final String NEO_URL = "https://api.nasa.gov/neo/rest/v1/feed";
-    private static final String IMAGE_LIBRARY_URL = "https://images-api.nasa.gov/search";
-    private static final String EPIC_URL = "https://epic.gsfc.nasa.gov/api/natural";
-
-    private boolean isApiKeyValid() {
-        if (apiKey == null || apiKey.trim().isEmpty()) {
-            return false;
-        }
-        return true;
-    }
-
-    private String loadApiKey() {
-        try {
-            // WARNING: This is a personal-use fallback API key. 
-            // DO NOT distribute this code or make it public.
-            // Remove this key before sharing the code.
-            final String PERSONAL_API_KEY = "DEMO_KEY";
-
-            // Try loading from environment variable first
-            String apiKey = System.getenv("NASA_API_KEY");
-            if (apiKey != null && !apiKey.isEmpty()) {
-                return apiKey;
-            }
-
-            // List of possible .env file locations
-            String[] possibleLocations = {
-                System.getProperty("user.dir") + "/.env",
-                System.getProperty("user.home") + "/.env",
-                new File(NasaController.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getParent() + "/.env",
-                "./app/.env"
-            };
-
-            // Try each location
-            for (String location : possibleLocations) {
-                File envFile = new File(location);
-                if (envFile.exists() && envFile.canRead()) {
-                    LOGGER.info("Found .env file at: " + location);
-                    dotenv = Dotenv.configure()
-                        .directory(envFile.getParent())
-                        .filename(envFile.getName())
-                        .load();
-                    apiKey = dotenv.get("NASA_API_KEY");
-                    if (apiKey != null && !apiKey.isEmpty()) {
-                        return apiKey;
-                    }
-                }
-            }
+    private final NasaService service;
+    private final Map<String, CompletableFuture<?>> activeRequests = new ConcurrentHashMap<>();
+
+    // Paging state of the Mars Rover gallery
+    private volatile RoverQuery roverQuery;
+    private volatile int roverNextPage;
+    private volatile boolean roverExhausted;
+    private final AtomicBoolean roverLoading = new AtomicBoolean();
+
+    // Paging state of the Image Library search results
+    private volatile LibraryQuery libraryQuery;
+    private volatile int libraryNextPage;
+    private volatile boolean libraryExhausted;
+    private final AtomicBoolean libraryLoading = new AtomicBoolean();
+    private final LiveSearch liveSearch;
+    private final ApodArchive apodArchive;
+    private final IdlePrefetcher prefetcher;
+    // Date of the APOD on screen, null until one is shown
+    private volatile LocalDate apodDate;
+    // Bumped by every library search, so a slower saved-search result never replaces a newer one
+    private final AtomicLong savedSearchGeneration = new AtomicLong();
+
+    private static final String LAST_MEDIA_KEY = "session:last-media";
+    private static final int NEO_RENDER_BATCH = 200;
+    private static final int NEO_FILTER_LIMIT = 500;
+    private static final int ROVER_PAGE_SIZE = 25;
+    private static final int SAVED_SEARCH_LIMIT = 200;
+    private static final int SAVED_SEARCH_LISTED = 15;
 
-            // Return the personal fallback API key if no other key is found
-            LOGGER.info("Using personal fallback API key");
-            return PERSONAL_API_KEY;
-
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error loading API key", e);
-            throw new RuntimeException("Failed to load API key: " + e.getMessage());
-        }
-    }
-    
     public NasaController(NasaModel model, NasaView view) {
+        this(model, view, new NasaService(model));
+    }
+
+    public NasaController(NasaModel model, NasaView view, NasaService service) {
         this.model = model;
         this.view = view;
-        this.httpClient = HttpClient.newHttpClient();
-        this.objectMapper = new ObjectMapper();
-        this.apiKey = loadApiKey();
-        
-        if (!isApiKeyValid()) {
-            throw new RuntimeException("Invalid NASA API key");
-        }
-        
+        this.service = service;
+        this.apodArchive = new ApodArchive(service);
+        this.prefetcher = IdlePrefetcher.fromProperties(service);
+        this.liveSearch = new LiveSearch(text -> service.searchLibrary(text, 1),
+            Long.getLong("nasa.search.debounce", LiveSearch.DEFAULT_DEBOUNCE_MILLIS), new LiveSearch.Listener() {
+                @Override
+                public void onResults(String query, LibraryPage page, boolean provisional) {
+                    showLibraryResults(query, page, provisional);
+                }
+
+                @Override
+                public void onError(String query, Throwable error) {
+                    displayError("Error searching NASA Image Library", error);
+                }
+            });
+
+        view.setImageLoader(service::loadImageBytes);
         setupEventListeners();
+        restoreLastSession();
+        registerCacheMetrics();
+    }
+
+    private void registerCacheMetrics() {
+        Metrics.registerCache("response-cache", () -> {
+            ResponseCache.Stats stats = service.getCacheStats();
+            return new CacheGauge.Reading(stats.hits(), stats.misses(), stats.toString());
+        });
+        // A prefetched entry counts as a hit when it was used and a miss when it never was
+        Metrics.registerCache("prefetch", () -> {
+            List<IdlePrefetcher.Stats> stats = prefetcher.getStats();
+            long warmed = 0;
+            long hits = 0;
+            for (IdlePrefetcher.Stats target : stats) {
+                warmed += target.warmed();
+                hits += target.hits();
+            }
+            return new CacheGauge.Reading(hits, warmed - hits, stats.toString());
+        });
     }
 
     private void setupEventListeners() {
         view.addAPODListener(e -> fetchAPOD());
+        view.addApodDateListener(e -> fetchAPOD());
+        view.addApodPreviousListener(e -> stepApod(-1));
+        view.addApodNextListener(e -> stepApod(1));
         view.addMarsRoverListener(e -> fetchMarsRoverPhotos());
         view.addNEOListener(e -> fetchNearEarthObjects());
+        view.addNEOFilterListener(e -> filterNearEarthObjects());
         view.addImageLibraryListener(e -> searchImageLibrary());
+        view.addSearchSubmitListener(e -> searchImageLibrary());
+        view.addSearchTypingListener(this::searchAsYouType);
         view.addEPICListener(e -> fetchEPICImages());
+        view.addEPICPlayListener(e -> playEPICTimeLapse());
     }
 
     private void fetchAPOD() {
-        try {
-            String url = APOD_URL + "?api_key=" + apiKey;
-            
-            HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .GET()
-                .build();
-
-            httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenApply(HttpResponse::body)
-                .thenApply(this::parseAPODResponse)
-                .thenAccept(view::displayData)
-                .exceptionally(e -> {
-                    view.displayData("Error fetching APOD: " + e.getMessage());
-                    return null;
-                });
-        } catch (Exception e) {
-            view.displayData("Error: " + e.getMessage());
+        String choice = view.getApodDateChoice();
+        if ("Yesterday".equals(choice)) {
+            showApod(ApodArchive.today().minusDays(1));
+        } else if ("Custom Date...".equals(choice)) {
+            String input = view.promptForDate("Show the picture from (YYYY-MM-DD):",
+                String.valueOf(apodDate != null ? apodDate : ApodArchive.today()));
+            if (input == null) {
+                return;
+            }
+            try {
+                showApod(LocalDate.parse(input.trim()));
+            } catch (DateTimeParseException e) {
+                view.displayData("Invalid date format, please use YYYY-MM-DD");
+            }
+        } else {
+            track("APOD", service.apod())
+                .thenAccept(apod -> {
+                    LocalDate date = apod.date().map(LocalDate::parse).orElse(ApodArchive.today());
+                    apodDate = date;
+                    showApodEntry(apod);
+                    apodArchive.prefetchAround(date);
+                })
+                .exceptionally(e -> displayError("Error fetching APOD", e));
         }
     }
 
-    private String parseAPODResponse(String response) {
-        try {
-            JsonNode root = objectMapper.readTree(response);
-            StringBuilder result = new StringBuilder();
+    // Previous/next day from the one on screen
+    private void stepApod(int days) {
+        showApod((apodDate != null ? apodDate : ApodArchive.today()).plusDays(days));
+    }
 
-            // Check if we got an error response
-            if (root.has("error")) {
-                return "API Error: " + root.get("error").get("message").asText();
-            }
+    private void showApod(LocalDate date) {
+        if (!ApodArchive.isAvailable(date)) {
+            view.displayData("APOD is available from " + ApodArchive.FIRST_DAY + " to today");
+            return;
+        }
+        apodDate = date;
+        track("APOD", apodArchive.get(date))
+            .thenAccept(this::showApodEntry)
+            .exceptionally(e -> displayError("Error fetching APOD for " + date, e));
+        apodArchive.prefetchAround(date);
+    }
+
+    private void showApodEntry(Apod apod) {
+        String text = describeApod(apod);
+        view.displayMedia(apod.url(), apod.isVideo());
+        view.displayData(text);
+        rememberLastMedia(apod.url(), apod.isVideo(), text);
+    }
+
+    // Starts a fetch on behalf of a UI action and cancels whatever that action still had
+    // in flight, so a superseded request never overwrites the newer result on screen
+    private <T> CompletableFuture<T> track(String feature, CompletableFuture<T> future) {
+        return track(feature, feature, future);
+    }
+
+    // Only a request in the same slot is cancelled, so a feature can keep independent
+    // requests apart (a NEO filter never cancels the NEO range still loading, and back)
+    private <T> CompletableFuture<T> track(String feature, String slot, CompletableFuture<T> future) {
+        prefetcher.interactive(feature, future);
+        CompletableFuture<?> previous = activeRequests.put(slot, future);
+        if (previous != null && previous != future) {
+            previous.cancel(false);
+        }
+        future.whenComplete((result, error) -> activeRequests.remove(slot, future));
+        return future;
+    }
 
-            // Get URL (required field)
-            JsonNode urlNode = root.get("url");
-            if (urlNode == null) {
-                return "Error: No media URL found in the response";
+    private Void displayError(String message, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof CancellationException) {
+            // Superseded by a newer request for the same view
+            return null;
+        }
+        view.displayData(message + ": " + cause.getMessage());
+        return null;
+    }
+
+    // Remembers the last APOD/EPIC media shown so the next launch can display it offline
+    private void rememberLastMedia(String mediaUrl, boolean isVideo, String text) {
+        DiskCache diskCache = model.getDiskCache();
+        if (diskCache == null) {
+            return;
+        }
+        try {
+            Properties session = new Properties();
+            session.setProperty("url", mediaUrl);
+            session.setProperty("video", Boolean.toString(isVideo));
+            session.setProperty("text", text);
+            StringWriter writer = new StringWriter();
+            session.store(writer, null);
+            diskCache.put(LAST_MEDIA_KEY, writer.toString(), null, null);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to remember last media", e);
+        }
+    }
+
+    private void restoreLastSession() {
+        DiskCache diskCache = model.getDiskCache();
+        if (diskCache == null) {
+            return;
+        }
+        CompletableFuture.runAsync(() -> {
+            Optional<DiskCache.Entry> pointer = diskCache.get(LAST_MEDIA_KEY);
+            if (pointer.isEmpty()) {
+                return;
             }
-            String mediaUrl = urlNode.asText();
-
-            // Get title (optional)
-            JsonNode titleNode = root.get("title");
-            String title = titleNode != null ? titleNode.asText() : "No title available";
-            result.append("Title: ").append(title).append("\n\n");
-
-            // Get explanation (optional)
-            JsonNode explanationNode = root.get("explanation");
-            String explanation = explanationNode != null ? explanationNode.asText() : "No explanation available";
-            result.append("Explanation: ").append(explanation);
-
-            // Get media type (optional, default to image)
-            JsonNode mediaTypeNode = root.get("media_type");
-            String mediaType = mediaTypeNode != null ? mediaTypeNode.asText() : "image";
-            
-            // Handle different media types
-            boolean isVideo = "video".equals(mediaType);
-            view.displayMedia(mediaUrl, isVideo);
-            
-            // Add date if available
-            JsonNode dateNode = root.get("date");
-            if (dateNode != null) {
-                result.append("\n\nDate: ").append(dateNode.asText());
+            try {
+                Properties session = new Properties();
+                session.load(new StringReader(pointer.get().text()));
+                String mediaUrl = session.getProperty("url");
+                boolean isVideo = Boolean.parseBoolean(session.getProperty("video"));
+                // Only restore when it needs no network access at all
+                if (mediaUrl == null || (!isVideo && diskCache.peek(NasaService.imageCacheKey(mediaUrl)).isEmpty())) {
+                    return;
+                }
+                String text = session.getProperty("text", "");
+                SwingUtilities.invokeLater(() -> {
+                    view.displayMedia(mediaUrl, isVideo);
+                    view.displayData(text);
+                });
+                LOGGER.info("Restored last session media from disk cache: " + mediaUrl);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to restore last session", e);
             }
+        });
+    }
 
-            return result.toString();
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error parsing APOD response", e);
-            return "Error parsing APOD response: " + e.getMessage() + "\nResponse: " + response;
-        }
+    public ResponseCache.Stats getCacheStats() {
+        return service.getCacheStats();
+    }
+
+    public List<IdlePrefetcher.Stats> getPrefetchStats() {
+        return prefetcher.getStats();
+    }
+
+    private static String describeApod(Apod apod) {
+        StringBuilder result = new StringBuilder();
+        result.append("Title: ").append(apod.title()).append("\n\n");
+        result.append("Explanation: ").append(apod.explanation());
+        apod.date().ifPresent(date -> result.append("\n\nDate: ").append(date));
+        return result.toString();
     }
 
     private void fetchMarsRoverPhotos() {
+        int sol;
         try {
-            String url = MARS_ROVER_URL + "?sol=1000&api_key=" + apiKey;
-            view.displayData("Fetching Mars Rover photos from: " + url);
-            
-            HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .GET()
-                .build();
-
-            httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenApply(HttpResponse::body)
-                .thenApply(this::parseMarsRoverResponse)
-                .thenAccept(view::displayData)
-                .exceptionally(e -> {
-                    view.displayData("Error fetching Mars Rover photos: " + e.getMessage());
-                    return null;
-                });
-        } catch (Exception e) {
-            view.displayData("Error: " + e.getMessage());
+            sol = Integer.parseInt(view.getMarsSol());
+        } catch (NumberFormatException e) {
+            view.displayData("Invalid sol, please enter a whole number");
+            return;
         }
+        String camera = view.getMarsCamera();
+        RoverQuery query = new RoverQuery(view.getSelectedRover(), sol, "All".equals(camera) ? null : camera);
+
+        roverQuery = query;
+        roverNextPage = 1;
+        roverExhausted = false;
+        roverLoading.set(false);
+        view.displayData("Fetching " + query.rover() + " photos for sol " + sol + "...");
+        loadRoverPage(query, 1);
     }
 
-    private String parseMarsRoverResponse(String response) {
-        try {
-            JsonNode root = objectMapper.readTree(response);
-            JsonNode photos = root.get("photos");
-            if (photos != null && photos.size() > 0) {
-                JsonNode firstPhoto = photos.get(0);
-                String imageUrl = firstPhoto.get("img_src").asText();
-                
-                // Ensure HTTPS usage
-                if (imageUrl.startsWith("http://")) {
-                    imageUrl = "https://" + imageUrl.substring(7);
+    // Loads one page of the active rover query into the gallery. Called again by the
+    // gallery as the user scrolls towards the end of what has been loaded.
+    private void loadRoverPage(RoverQuery query, int page) {
+        if (query != roverQuery || roverExhausted || !roverLoading.compareAndSet(false, true)) {
+            return;
+        }
+        CompletableFuture<List<RoverPhoto>> photosFuture =
+            service.roverPhotos(query.rover(), query.sol(), query.camera(), page);
+        (page == 1 ? track("MARS", photosFuture) : photosFuture)
+            .whenComplete((photos, error) -> roverLoading.set(false))
+            .thenAccept(photos -> {
+                if (query != roverQuery) {
+                    return;
                 }
-                
-                view.displayData("Attempting to load image from URL: " + imageUrl);
-                
-                try {
-                    // Encode the URL
-                    imageUrl = encodeUrl(imageUrl);
-                    view.displayData("Encoded image URL: " + imageUrl);
-                    
-                    // Configure client to follow redirects
-                    HttpClient.Builder clientBuilder = HttpClient.newBuilder()
-                        .followRedirects(HttpClient.Redirect.NORMAL);
-                    HttpClient redirectClient = clientBuilder.build();
-                    
-                    // Verify URL is valid
-                    HttpRequest imageRequest = HttpRequest.newBuilder()
-                        .uri(URI.create(imageUrl))
-                        .header("User-Agent", "NASA-App/1.0") // Add User-Agent header
-                        .GET()
-                        .build();
-                    
-                    // Test if image is accessible
-                    HttpResponse<byte[]> imageResponse = redirectClient.send(imageRequest, HttpResponse.BodyHandlers.ofByteArray());
-                    int statusCode = imageResponse.statusCode();
-                    view.displayData("Image response status code: " + statusCode);
-                    
-                    if (statusCode == 200) {
-                        view.displayMedia(imageUrl, false);
-                        return String.format("Showing photo taken by %s rover on sol %s",
-                            firstPhoto.get("rover").get("name").asText(),
-                            firstPhoto.get("sol").asText());
-                    } else {
-                        return String.format("Error: Unable to access image (HTTP %d) - Final URL: %s", 
-                            statusCode, 
-                            imageResponse.uri().toString());
-                    }
-                } catch (Exception e) {
-                    view.displayData("Error loading image: " + e.getMessage());
-                    return "Error loading image: " + e.getMessage();
+                roverNextPage = page + 1;
+                roverExhausted = photos.size() < ROVER_PAGE_SIZE;
+
+                List<ThumbnailGallery.Item> items = new ArrayList<>(photos.size());
+                for (RoverPhoto photo : photos) {
+                    items.add(new ThumbnailGallery.Item(
+                        photo.camera() + " #" + photo.id(), photo.imageUrl(), photo.imageUrl(), false));
                 }
-            }
-            return "No photos found in the response";
-        } catch (Exception e) {
-            return "Error parsing Mars Rover response: " + e.getMessage();
-        }
+                if (page > 1) {
+                    view.appendGallery("MARS", items);
+                    return;
+                }
+                if (photos.isEmpty()) {
+                    view.showGallery("MARS", items, null);
+                    view.displayData("No photos found for this rover, sol and camera");
+                    return;
+                }
+                RoverPhoto first = photos.get(0);
+                view.showGallery("MARS", items, () -> loadRoverPage(query, roverNextPage));
+                view.displayMedia(first.imageUrl(), false);
+                view.displayData(String.format("Showing photos taken by %s rover on sol %d (Earth date %s)%s",
+                    first.roverName(), first.sol(), first.earthDate(),
+                    roverExhausted ? "" : "\nScroll the gallery to load more"));
+            })
+            .exceptionally(e -> displayError("Error fetching Mars Rover photos", e));
+    }
+
+    private record RoverQuery(String rover, int sol, String camera) {
     }
 
     private void fetchNearEarthObjects() {
+        LocalDate start;
+        LocalDate end;
         try {
-            String url = NEO_URL + "?api_key=" + apiKey;
-            
-            HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .GET()
-                .build();
-
-            httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenApply(HttpResponse::body)
-                .thenApply(this::parseNEOResponse)
-                .thenAccept(view::displayData)
-                .exceptionally(e -> {
-                    view.displayData("Error fetching NEO data: " + e.getMessage());
-                    return null;
-                });
+            start = view.getNeoStartDate().isEmpty() ? LocalDate.now() : LocalDate.parse(view.getNeoStartDate());
+            end = view.getNeoEndDate().isEmpty()
+                ? start.plusDays(NeoRangeFetcher.WINDOW_DAYS - 1)
+                : LocalDate.parse(view.getNeoEndDate());
+        } catch (DateTimeParseException e) {
+            view.displayData("Invalid date, please use YYYY-MM-DD: " + e.getParsedString());
+            return;
+        }
+        if (end.isBefore(start)) {
+            view.displayData("End date must not be before the start date");
+            return;
+        }
+
+        try {
+            view.displayData("Near Earth Objects from " + start + " to " + end + ":\n\n");
+            CompletableFuture<Integer> result = new CompletableFuture<>();
+            NeoFeedRenderer renderer = new NeoFeedRenderer(result);
+            NeoStore store = new NeoStore();
+            CompletableFuture<Integer> range = service.neoRange(start, end, rows -> {
+                store.addAll(rows);
+                rows.forEach(renderer);
+                renderer.flush();
+            });
+            range.whenComplete((count, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(count);
+                }
+            });
+            // A superseded range stops scheduling its remaining windows
+            result.whenComplete((count, error) -> {
+                if (result.isCancelled()) {
+                    range.cancel(false);
+                }
+            });
+
+            track("NEO", result)
+                .thenAccept(count -> {
+                    model.setNeoStore(store);
+                    renderer.finish(count);
+                })
+                .exceptionally(e -> displayError("Error fetching NEO data", e));
         } catch (Exception e) {
             view.displayData("Error: " + e.getMessage());
         }
     }
 
-    private String parseNEOResponse(String response) {
+    // Runs against the columnar store of the last completed NEO fetch, off the EDT
+    private void filterNearEarthObjects() {
+        double minDiameter;
+        double maxDistance;
         try {
-            JsonNode root = objectMapper.readTree(response);
-            
-            // Check if we got an error response
-            if (root.has("error")) {
-                return "API Error: " + root.get("error").get("message").asText();
+            minDiameter = view.getNeoMinDiameter().isEmpty()
+                ? Double.NEGATIVE_INFINITY
+                : Double.parseDouble(view.getNeoMinDiameter());
+            maxDistance = view.getNeoMaxDistance().isEmpty()
+                ? Double.POSITIVE_INFINITY
+                : Double.parseDouble(view.getNeoMaxDistance());
+        } catch (NumberFormatException e) {
+            view.displayData("Invalid number in NEO filter: " + e.getMessage());
+            return;
+        }
+        boolean hazardousOnly = view.isNeoHazardousOnly();
+        String sortKey = view.getNeoSortKey();
+        NeoStore store = model.getNeoStore();
+        if (store.size() == 0) {
+            view.displayData("No NEO data loaded yet, fetch Near Earth Objects first");
+            return;
+        }
+
+        track("NEO", "NEO_FILTER", CompletableFuture.supplyAsync(() -> {
+            int[] matches = store.filter(hazardousOnly, minDiameter, maxDistance);
+            int[] shown;
+            if ("Velocity".equals(sortKey)) {
+                shown = store.topK(matches, NeoStore.Column.VELOCITY, true, NEO_FILTER_LIMIT);
+            } else if ("Diameter".equals(sortKey)) {
+                shown = store.topK(matches, NeoStore.Column.DIAMETER, true, NEO_FILTER_LIMIT);
+            } else if ("Miss Distance".equals(sortKey)) {
+                shown = store.topK(matches, NeoStore.Column.MISS_DISTANCE_LUNAR, false, NEO_FILTER_LIMIT);
+            } else {
+                shown = store.topK(matches, NeoStore.Column.EPOCH, false, NEO_FILTER_LIMIT);
+            }
+            return renderNeoRows(store, shown, matches.length);
+        }))
+            .thenAccept(view::displayData)
+            .exceptionally(e -> displayError("Error filtering NEO data", e));
+    }
+
+    private static String renderNeoRows(NeoStore store, int[] rows, int matches) {
+        StringBuilder result = new StringBuilder(rows.length * 96 + 64);
+        result.append("Showing ").append(rows.length).append(" of ").append(matches)
+            .append(" matching approaches (").append(store.size()).append(" loaded)\n\n");
+        for (int row : rows) {
+            result.append("  - ").append(store.name(row)).append(" on ").append(store.approachDate(row))
+                .append(" (Size: ");
+            appendFixed2(result, store.diameterMeters(row));
+            result.append(" m, Distance: ");
+            appendFixed2(result, store.missDistanceLunar(row));
+            result.append(" LD, Velocity: ");
+            appendFixed2(result, store.velocityKmPerSec(row));
+            result.append(" km/s)");
+            if (store.isHazardous(row)) {
+                result.append(" ⚠️ Potentially Hazardous");
+            }
+            result.append('\n');
+        }
+        return result.toString();
+    }
+
+    // Renders NEO rows into the result area in batches while the feed is still being parsed,
+    // so the first rows show up long before the whole feed has arrived
+    private final class NeoFeedRenderer implements Consumer<NeoApproach> {
+        private final CompletableFuture<?> owner;
+        private final StringBuilder batch = new StringBuilder(NEO_RENDER_BATCH * 64);
+        private String currentDate;
+        private int rows;
+
+        NeoFeedRenderer(CompletableFuture<?> owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public void accept(NeoApproach neo) {
+            if (owner.isCancelled()) {
+                // Stop parsing once a newer request has replaced this one
+                throw new CancellationException();
+            }
+            if (!neo.approachDate().equals(currentDate)) {
+                currentDate = neo.approachDate();
+                batch.append(rows == 0 ? "" : "\n").append("Date: ").append(currentDate).append('\n');
+            }
+            batch.append("  - ").append(neo.name()).append(" (Size: ");
+            if (Double.isNaN(neo.diameterMaxMeters())) {
+                batch.append("Unknown");
+            } else {
+                appendFixed2(batch, neo.diameterMaxMeters());
+                batch.append(" meters");
             }
-            
-            // Get near earth objects
-            JsonNode nearEarthObjects = root.get("near_earth_objects");
-            if (nearEarthObjects == null) {
-                return "No near earth objects data found in the response";
+            batch.append(')');
+            if (neo.hazardous()) {
+                batch.append(" ⚠️ Potentially Hazardous");
             }
+            batch.append('\n');
 
-            StringBuilder result = new StringBuilder("Near Earth Objects:\n\n");
-            
-            // If no fields, check if it's an array
-            if (!nearEarthObjects.isObject()) {
-                return "Unexpected NEO data format in the response";
+            rows++;
+            if (rows == 1 || rows % NEO_RENDER_BATCH == 0) {
+                flush();
             }
+        }
 
-            nearEarthObjects.fields().forEachRemaining(entry -> {
-                String date = entry.getKey();
-                JsonNode objects = entry.getValue();
-                if (objects != null && objects.isArray()) {
-                    result.append(String.format("Date: %s - Found %d objects\n", date, objects.size()));
-                    
-                    // Add details for each object
-                    for (int i = 0; i < objects.size(); i++) {
-                        JsonNode neo = objects.get(i);
-                        String name = neo.get("name") != null ? neo.get("name").asText() : "Unknown";
-                        JsonNode diameter = neo.path("estimated_diameter").path("meters").path("estimated_diameter_max");
-                        String size = diameter.isMissingNode() ? "Unknown" : String.format("%.2f meters", diameter.asDouble());
-                        JsonNode hazardous = neo.get("is_potentially_hazardous_asteroid");
-                        boolean isHazardous = hazardous != null && hazardous.asBoolean();
-                        
-                        result.append(String.format("  - %s (Size: %s)%s\n", 
-                            name, 
-                            size,
-                            isHazardous ? " ⚠️ Potentially Hazardous" : ""));
-                    }
-                    result.append("\n");
-                }
-            });
-            
-            return result.toString();
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error parsing NEO response", e);
-            return "Error parsing NEO response: " + e.getMessage() + "\nResponse: " + response;
+        void finish(int count) {
+            batch.append("\nTotal: ").append(count).append(" objects\n");
+            flush();
+        }
+
+        private void flush() {
+            if (batch.length() == 0 || owner.isCancelled()) {
+                return;
+            }
+            view.appendData(batch.toString());
+            batch.setLength(0);
+        }
+    }
+
+    // Two-decimal formatting without going through String.format for every row
+    private static void appendFixed2(StringBuilder out, double value) {
+        if (Double.isNaN(value)) {
+            out.append("unknown");
+            return;
+        }
+        long hundredths = Math.round(value * 100);
+        out.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) {
+            out.append('0');
         }
+        out.append(fraction);
     }
 
     private void searchImageLibrary() {
-        try {
-            String query = view.getSearchQuery();
-            String url = IMAGE_LIBRARY_URL + "?q=" + query;
-            
-            HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .GET()
-                .build();
-
-            httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenApply(HttpResponse::body)
-                .thenApply(this::parseImageLibraryResponse)
-                .exceptionally(e -> "Error searching NASA Image Library: " + e.getMessage());
-        } catch (Exception e) {
-            view.displayData("Error: " + e.getMessage());
+        String text = view.getSearchQuery().trim();
+        if (text.length() < LiveSearch.MIN_QUERY_LENGTH) {
+            view.displayData("Enter something to search for");
+            return;
+        }
+        if (view.isSearchSavedOnly()) {
+            searchSaved(text);
+            return;
         }
+        savedSearchGeneration.incrementAndGet();
+        prefetcher.userAction("LIBRARY");
+        view.displayData("Searching the NASA Image Library for \"" + text + "\"...");
+        liveSearch.submit(text);
     }
 
-    private String encodeUrl(String url) {
-        try {
-            // Split the URL into parts to encode each part separately
-            String[] parts = url.split("/");
-            for (int i = 3; i < parts.length; i++) { // Start from index 3 to skip protocol and domain
-                parts[i] = URLEncoder.encode(parts[i], StandardCharsets.UTF_8.toString())
-                    .replace("+", "%20"); // Replace + with %20 for spaces
-            }
-            return String.join("/", parts);
-        } catch (Exception e) {
-            return url; // Return original URL if encoding fails
+    private void searchAsYouType() {
+        String text = view.getSearchQuery();
+        prefetcher.userAction("LIBRARY");
+        if (!view.isSearchSavedOnly()) {
+            savedSearchGeneration.incrementAndGet();
+            liveSearch.type(text);
+        } else if (text.length() >= LiveSearch.MIN_QUERY_LENGTH) {
+            // A local lookup is cheap enough to run on every keystroke, no debounce
+            searchSaved(text);
         }
     }
 
-    private String parseImageLibraryResponse(String response) {
-        try {
-            JsonNode root = objectMapper.readTree(response);
-            JsonNode items = root.get("collection").get("items");
-            if (items.size() > 0) {
-                StringBuilder result = new StringBuilder("Search Results:\n\n");
-                for (int i = 0; i < Math.min(5, items.size()); i++) {
-                    JsonNode item = items.get(i);
-                    JsonNode data = item.get("data").get(0);
-                    String title = data.get("title").asText();
-                    String mediaType = data.get("media_type").asText();
-                    
-                    // Get the media URL
-                    String mediaUrl = null;
-                    if ("video".equals(mediaType)) {
-                        JsonNode links = item.get("links");
-                        if (links != null && links.size() > 0) {
-                            mediaUrl = encodeUrl(links.get(0).get("href").asText());
-                        }
-                    } else {
-                        // For images
-                        JsonNode links = item.get("links");
-                        if (links != null && links.size() > 0) {
-                            mediaUrl = encodeUrl(links.get(0).get("href").asText());
-                        }
-                    }
-                    
-                    if (mediaUrl != null) {
-                        view.displayMedia(mediaUrl, "video".equals(mediaType));
-                        result.append(String.format("%d. %s (%s)\n", i + 1, title, mediaType));
-                        break; // Display the first available media
-                    }
+    // Searches what has been fetched before (APOD explanations, Image Library titles and
+    // descriptions) through the local index, without any network request
+    private void searchSaved(String text) {
+        long generation = savedSearchGeneration.incrementAndGet();
+        liveSearch.cancel();
+        libraryQuery = null;
+        prefetcher.setLibraryNext(null, 0);
+        long start = System.nanoTime();
+        service.searchSaved(text, SAVED_SEARCH_LIMIT)
+            .thenAccept(hits -> {
+                if (generation == savedSearchGeneration.get()) {
+                    showSavedResults(text, hits, (System.nanoTime() - start) / 1_000_000.0);
                 }
-                return result.toString();
+            })
+            .exceptionally(e -> displayError("Error searching saved results", e));
+    }
+
+    private void showSavedResults(String text, List<TextIndex.Hit> hits, double millis) {
+        if (model.getTextIndex() == null) {
+            view.displayData("Saved search is unavailable, the local index could not be opened");
+            return;
+        }
+        List<ThumbnailGallery.Item> items = new ArrayList<>(hits.size());
+        StringBuilder listing = new StringBuilder(String.format("Found %,d saved matches for \"%s\" in %.1f ms (offline)",
+            hits.size(), text, millis));
+        for (TextIndex.Hit hit : hits) {
+            if (!hit.url().isEmpty()) {
+                items.add(new ThumbnailGallery.Item(hit.source() + ": " + hit.title(), hit.url(), hit.url(), false));
+            }
+            if (items.size() <= SAVED_SEARCH_LISTED) {
+                listing.append("\n").append(hit.source()).append(": ").append(hit.title());
             }
-            return "No images found";
-        } catch (Exception e) {
-            return "Error parsing Image Library response: " + e.getMessage();
         }
+        view.showGallery("LIBRARY", items, null);
+        if (hits.isEmpty()) {
+            view.displayData("No saved matches for \"" + text + "\", clear \"Saved only\" to search NASA");
+            return;
+        }
+        view.displayData(listing.toString());
     }
 
-    private void fetchEPICImages() {
-        try {
-            String url = EPIC_URL;
-            
-            HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .header("Accept", "application/json")
-                .GET()
-                .build();
-
-            httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenApply(HttpResponse::body)
-                .thenApply(this::parseEPICResponse)
-                .thenAccept(view::displayData)
-                .exceptionally(e -> {
-                    view.displayData("Error fetching EPIC images: " + e.getMessage());
-                    return null;
-                });
-        } catch (Exception e) {
-            view.displayData("Error: " + e.getMessage());
+    // First pages come from LiveSearch, never on the EDT: its scheduler answers from the
+    // cache and the parse pool completes real searches, so the page-2 prefetch below starts
+    // off the EDT too. A provisional page was filtered from a cached broader query and is
+    // replaced when the real one arrives.
+    private void showLibraryResults(String text, LibraryPage result, boolean provisional) {
+        LibraryQuery query = new LibraryQuery(text);
+        libraryQuery = query;
+        libraryNextPage = 2;
+        libraryExhausted = provisional || !result.hasNext();
+        libraryLoading.set(false);
+        if (!libraryExhausted) {
+            service.searchLibrary(text, 2, RateLimiter.Priority.BACKGROUND);
+        }
+        prefetcher.setLibraryNext(text, libraryExhausted ? 0 : 2);
+
+        List<ThumbnailGallery.Item> items = libraryItems(result);
+        if (items.isEmpty()) {
+            view.showGallery("LIBRARY", items, null);
+            view.displayData(provisional ? "Searching for \"" + text + "\"..." : "No images found for \"" + text + "\"");
+            return;
+        }
+        view.showGallery("LIBRARY", items, () -> loadLibraryPage(query, libraryNextPage));
+        if (!provisional) {
+            view.displayMedia(items.get(0).getMediaUrl(), items.get(0).isVideo());
         }
+        view.displayData(provisional
+            ? String.format("%,d cached matches for \"%s\", searching...", items.size(), text)
+            : String.format("Found %,d results for \"%s\"%s", result.totalHits(), text,
+                libraryExhausted ? "" : "\nScroll the gallery to load more"));
     }
 
-    private String parseEPICResponse(String response) {
-        try {
-            JsonNode root = objectMapper.readTree(response);
-            if (root.size() > 0) {
-                JsonNode firstImage = root.get(0);
-                String date = firstImage.get("date").asText().split(" ")[0];
-                String[] dateParts = date.split("-");
-                String imageId = firstImage.get("image").asText();
-                
-                // Construct the actual image URL using the date components
-                String imageUrl = String.format(
-                    "https://epic.gsfc.nasa.gov/archive/natural/%s/%s/%s/png/%s.png",
-                    dateParts[0],  // year
-                    dateParts[1],  // month
-                    dateParts[2],  // day
-                    imageId
-                );
-                
-                view.displayMedia(imageUrl, false); // EPIC images are always images
-                
-                return String.format("Showing EPIC image from %s", date);
-            }
-            return "No EPIC images found";
-        } catch (Exception e) {
-            return "Error parsing EPIC response: " + e.getMessage();
+    // Same paging scheme as the rover gallery. Once a page is shown the next one is
+    // requested in the background, so scrolling on usually finds it already cached.
+    private void loadLibraryPage(LibraryQuery query, int page) {
+        if (query != libraryQuery || libraryExhausted || !libraryLoading.compareAndSet(false, true)) {
+            return;
         }
+        prefetcher.userAction("LIBRARY");
+        service.searchLibrary(query.text(), page)
+            .whenComplete((result, error) -> libraryLoading.set(false))
+            .thenAccept(result -> {
+                if (query != libraryQuery) {
+                    return;
+                }
+                libraryNextPage = page + 1;
+                libraryExhausted = !result.hasNext();
+                if (result.hasNext()) {
+                    service.searchLibrary(query.text(), page + 1, RateLimiter.Priority.BACKGROUND);
+                }
+                prefetcher.setLibraryNext(query.text(), libraryExhausted ? 0 : page + 1);
+                view.appendGallery("LIBRARY", libraryItems(result));
+            })
+            .exceptionally(e -> displayError("Error searching NASA Image Library", e));
+    }
+
+    private static List<ThumbnailGallery.Item> libraryItems(LibraryPage result) {
+        List<ThumbnailGallery.Item> items = new ArrayList<>(result.items().size());
+        for (LibraryItem item : result.items()) {
+            item.previewUrl().ifPresent(url ->
+                items.add(new ThumbnailGallery.Item(item.title(), url, url, item.isVideo())));
+        }
+        return items;
+    }
+
+    private record LibraryQuery(String text) {
+    }
+
+    private void fetchEPICImages() {
+        EpicCollection collection = view.getEpicCollection();
+        prefetcher.setEpicCollection(collection);
+        track("EPIC", service.epicImages(collection))
+            .thenAccept(images -> {
+                if (images.isEmpty()) {
+                    view.displayData("No EPIC images found");
+                    return;
+                }
+                EpicImage first = images.get(0);
+                String text = String.format("Showing EPIC image from %s", first.day());
+                view.displayMedia(first.imageUrl(), false); // EPIC images are always images
+                view.displayData(text);
+                rememberLastMedia(first.imageUrl(), false, text);
+            })
+            .exceptionally(e -> displayError("Error fetching EPIC images", e));
+    }
+
+    // Frames are the 1024px JPEGs rather than the PNGs: they are decoded down to the
+    // panel size anyway, and download in a fraction of the time
+    private void playEPICTimeLapse() {
+        EpicCollection collection = view.getEpicCollection();
+        prefetcher.setEpicCollection(collection);
+        int days = view.getEpicDays();
+        view.displayData(String.format("Loading %d day%s of EPIC imagery...", days, days == 1 ? "" : "s"));
+        track("EPIC", service.epicTimeLapse(collection, days))
+            .thenAccept(images -> {
+                if (images.isEmpty()) {
+                    view.displayData("No EPIC images found");
+                    return;
+                }
+                List<TimeLapsePlayer.Frame> frames = new ArrayList<>(images.size());
+                for (EpicImage image : images) {
+                    frames.add(new TimeLapsePlayer.Frame(image.jpegUrl(), image.date() + " UTC"));
+                }
+                view.playTimeLapse(frames);
+                view.displayData(String.format("Playing %,d EPIC frames from %s to %s\nClick the image to pause",
+                    frames.size(), images.get(0).day(), images.get(images.size() - 1).day()));
+            })
+            .exceptionally(e -> displayError("Error fetching EPIC images", e));
     }
 
     public void start() {
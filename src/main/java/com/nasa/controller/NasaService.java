@@ -0,0 +1,804 @@
+package com.nasa.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nasa.metrics.Metrics;
+import com.nasa.model.Apod;
+import com.nasa.model.DiskCache;
+import com.nasa.model.EpicCollection;
+import com.nasa.model.EpicImage;
+import com.nasa.model.LibraryItem;
+import com.nasa.model.LibraryPage;
+import com.nasa.model.NasaModel;
+import com.nasa.model.NeoApproach;
+import com.nasa.model.ResponseCache;
+import com.nasa.model.RoverPhoto;
+import com.nasa.model.TextIndex;
+import io.github.cdimascio.dotenv.Dotenv;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLEncoder;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Everything needed to talk to the NASA APIs without a UI: the API key, the shared
+// transport and rate limiter, and the memory/disk response caches. The Swing controller
+// and the headless batch jobs both fetch through this class.
+public class NasaService {
+    private static final Logger LOGGER = Logger.getLogger(NasaService.class.getName());
+
+    // NASA API endpoints
+    static final String API_HOST = "api.nasa.gov";
+    static final String APOD_URL = "https://api.nasa.gov/planetary/apod";
+    static final String MARS_ROVER_URL = "https://api.nasa.gov/mars-photos/api/v1/rovers";
+    static final String NEO_URL = "https://api.nasa.gov/neo/rest/v1/feed";
+    static final String IMAGE_LIBRARY_URL = "https://images-api.nasa.gov/search";
+    static final String EPIC_URL = "https://epic.gsfc.nasa.gov/api/";
+    static final String EPIC_ARCHIVE_URL = "https://epic.gsfc.nasa.gov/archive/";
+
+    // How long each endpoint's responses stay fresh in the response cache
+    private static final Duration APOD_TODAY_TTL = Duration.ofHours(1);
+    private static final Duration APOD_PAST_TTL = Duration.ofDays(30);
+    private static final Duration MARS_ROVER_TTL = Duration.ofDays(1);
+    private static final Duration NEO_TTL = Duration.ofHours(3);
+    private static final Duration IMAGE_LIBRARY_TTL = Duration.ofHours(12);
+    private static final Duration EPIC_TTL = Duration.ofHours(2);
+    private static final Duration EPIC_PAST_TTL = Duration.ofDays(30);
+
+    // Longest EPIC time-lapse, in days of imagery
+    public static final int MAX_EPIC_DAYS = 31;
+    private static final DateTimeFormatter EPIC_ARCHIVE_DAY = DateTimeFormatter.ofPattern("yyyy/MM/dd");
+
+    private static final int DEFAULT_NEO_PARALLELISM = 4;
+    public static final int LIBRARY_PAGE_SIZE = 100;
+
+    private final NasaModel model;
+    private final NasaTransport transport;
+    private final RequestCoalescer coalescer;
+    private final ObjectMapper objectMapper;
+    private final NeoFeedParser neoFeedParser;
+    private final ResponseParser responseParser;
+    private final NeoRangeFetcher neoRangeFetcher;
+    private final Map<String, CompletableFuture<byte[]>> imageDownloads = new ConcurrentHashMap<>();
+    // NEO feed downloads by cache key; see streamNeoFeed
+    private final Map<String, NeoFlight> neoFlights = new ConcurrentHashMap<>();
+    // Parsing, indexing and streamed bodies (read with blocking InputStreams) run here, off
+    // the transport's threads and off whichever thread asked
+    private final ExecutorService parseExecutor;
+    private final String apiKey;
+    // Told the cache key of every interactive request before it is answered
+    private volatile Consumer<String> interactiveListener;
+
+    public NasaService(NasaModel model) {
+        this(model, loadApiKey());
+    }
+
+    public NasaService(NasaModel model, String apiKey) {
+        if (apiKey == null || apiKey.trim().isEmpty()) {
+            throw new RuntimeException("Invalid NASA API key");
+        }
+        this.model = model;
+        this.apiKey = apiKey;
+        this.transport = new NasaTransport();
+        this.transport.setRateLimiter(API_HOST, RateLimiter.forApiKey(apiKey));
+        this.coalescer = new RequestCoalescer(transport);
+        AtomicInteger parseThreads = new AtomicInteger();
+        this.parseExecutor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "nasa-parse-" + parseThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.objectMapper = ResponseParser.createObjectMapper(Boolean.getBoolean("nasa.json.blackbird"));
+        this.neoFeedParser = new NeoFeedParser(objectMapper.getFactory());
+        this.responseParser = new ResponseParser(objectMapper);
+        this.neoRangeFetcher = new NeoRangeFetcher(this::streamNeoFeed,
+            Integer.getInteger("nasa.neo.parallelism", DEFAULT_NEO_PARALLELISM));
+    }
+
+    static String loadApiKey() {
+        try {
+            // WARNING: This is a personal-use fallback API key.
+            // DO NOT distribute this code or make it public.
+            // Remove this key before sharing the code.
+            final String PERSONAL_API_KEY = "DEMO_KEY";
+
+            // Try loading from environment variable first
+            String apiKey = System.getenv("NASA_API_KEY");
+            if (apiKey != null && !apiKey.isEmpty()) {
+                return apiKey;
+            }
+
+            // List of possible .env file locations
+            String[] possibleLocations = {
+                System.getProperty("user.dir") + "/.env",
+                System.getProperty("user.home") + "/.env",
+                new File(NasaService.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getParent() + "/.env",
+                "./app/.env"
+            };
+
+            // Try each location
+            for (String location : possibleLocations) {
+                File envFile = new File(location);
+                if (envFile.exists() && envFile.canRead()) {
+                    LOGGER.info("Found .env file at: " + location);
+                    Dotenv dotenv = Dotenv.configure()
+                        .directory(envFile.getParent())
+                        .filename(envFile.getName())
+                        .load();
+                    apiKey = dotenv.get("NASA_API_KEY");
+                    if (apiKey != null && !apiKey.isEmpty()) {
+                        return apiKey;
+                    }
+                }
+            }
+
+            // Return the personal fallback API key if no other key is found
+            LOGGER.warning("No NASA_API_KEY configured, falling back to " + PERSONAL_API_KEY
+                + "; requests are limited to a few dozen per hour");
+            return PERSONAL_API_KEY;
+
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error loading API key", e);
+            throw new RuntimeException("Failed to load API key: " + e.getMessage());
+        }
+    }
+
+    public NasaModel getModel() {
+        return model;
+    }
+
+    public NasaTransport getTransport() {
+        return transport;
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    public String getApiKey() {
+        return apiKey;
+    }
+
+    public ResponseParser getResponseParser() {
+        return responseParser;
+    }
+
+    public HttpRequest.Builder request(String url) {
+        return transport.request(url);
+    }
+
+    // Typed entry points. Each one fetches through the caches and parses on the parse pool,
+    // also for cache hits, whose body is ready before the caller has attached anything; the
+    // parse, indexing and derived cache writes never run on the calling thread (often the
+    // EDT). Callers decide which thread consumes the result.
+
+    public CompletableFuture<Apod> apod() {
+        return apod(RateLimiter.Priority.INTERACTIVE);
+    }
+
+    public CompletableFuture<Apod> apod(RateLimiter.Priority priority) {
+        return fetch(transport.request(apodUrl()).build(), priority)
+            .thenApplyAsync(body -> indexApod(parse(body, responseParser::parseApod)), parseExecutor);
+    }
+
+    public CompletableFuture<Apod> apod(LocalDate date) {
+        return fetch(transport.request(apodDateUrl(date)).build())
+            .thenApplyAsync(body -> indexApod(parse(body, responseParser::parseApod)), parseExecutor);
+    }
+
+    // Up to a year of entries in one request. Each entry is also filed under its own
+    // single-date URL, so apod(date) for any day in the range is then a cache hit.
+    public CompletableFuture<List<Apod>> apodRange(LocalDate start, LocalDate end, RateLimiter.Priority priority) {
+        return fetch(transport.request(apodRangeUrl(start, end)).build(), priority)
+            .thenApplyAsync(body -> parse(body, response -> {
+                List<ResponseParser.ApodBody> entries = responseParser.parseApodBatch(response);
+                List<Apod> apods = new ArrayList<>(entries.size());
+                for (ResponseParser.ApodBody entry : entries) {
+                    entry.apod().date().ifPresent(date ->
+                        storeDerived(apodDateUrl(LocalDate.parse(date)), entry.json()));
+                    apods.add(indexApod(entry.apod()));
+                }
+                return apods;
+            }), parseExecutor);
+    }
+
+    public CompletableFuture<List<RoverPhoto>> roverPhotos(String rover, int sol, String camera, int page) {
+        String url = MARS_ROVER_URL + "/" + rover.toLowerCase(Locale.ROOT) + "/photos?sol=" + sol
+            + (camera == null ? "" : "&camera=" + camera.toLowerCase(Locale.ROOT))
+            + "&page=" + page + "&api_key=" + apiKey;
+        return fetch(transport.request(url).build())
+            .thenApplyAsync(body -> parse(body, responseParser::parseRoverPhotos), parseExecutor);
+    }
+
+    // Rows are delivered in date order, the first window's while it downloads; see NeoRangeFetcher
+    public CompletableFuture<Integer> neoRange(LocalDate start, LocalDate end, Consumer<List<NeoApproach>> sink) {
+        return neoRangeFetcher.fetch(start, end, sink);
+    }
+
+    // The most recent day with imagery
+    public CompletableFuture<List<EpicImage>> epicImages(EpicCollection collection) {
+        return epicImages(collection, RateLimiter.Priority.INTERACTIVE);
+    }
+
+    public CompletableFuture<List<EpicImage>> epicImages(EpicCollection collection, RateLimiter.Priority priority) {
+        return epicImages(collection, epicLatestUrl(collection), priority);
+    }
+
+    // Empty for days without imagery
+    public CompletableFuture<List<EpicImage>> epicImages(EpicCollection collection, LocalDate date) {
+        return epicImages(collection, epicDateUrl(collection, date), RateLimiter.Priority.INTERACTIVE);
+    }
+
+    private CompletableFuture<List<EpicImage>> epicImages(EpicCollection collection, String url,
+                                                          RateLimiter.Priority priority) {
+        return fetch(transport.request(url).header("Accept", "application/json").build(), priority)
+            .thenApplyAsync(body -> parse(body, response -> responseParser.parseEpicImages(response, collection)),
+                parseExecutor);
+    }
+
+    // The last `days` days of imagery up to the most recent one, oldest first. The earlier
+    // days are requested together once the latest day is known.
+    public CompletableFuture<List<EpicImage>> epicTimeLapse(EpicCollection collection, int days) {
+        int span = Math.max(1, Math.min(days, MAX_EPIC_DAYS));
+        return epicImages(collection).thenCompose(latest -> {
+            if (latest.isEmpty() || span == 1) {
+                return CompletableFuture.completedFuture(latest);
+            }
+            LocalDate last = LocalDate.parse(latest.get(0).day());
+            List<CompletableFuture<List<EpicImage>>> earlier = new ArrayList<>(span - 1);
+            for (int back = span - 1; back >= 1; back--) {
+                earlier.add(epicImages(collection, last.minusDays(back)));
+            }
+            return CompletableFuture.allOf(earlier.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+                List<EpicImage> frames = new ArrayList<>();
+                earlier.forEach(day -> frames.addAll(day.join()));
+                frames.addAll(latest);
+                frames.sort(Comparator.comparing(EpicImage::date));
+                return frames;
+            });
+        });
+    }
+
+    public CompletableFuture<LibraryPage> searchLibrary(String query, int page) {
+        return searchLibrary(query, page, RateLimiter.Priority.INTERACTIVE);
+    }
+
+    // Pages are cached by URL, so a page fetched ahead of time is served from memory when
+    // the gallery asks for it, and a fetch still in flight is joined rather than repeated
+    public CompletableFuture<LibraryPage> searchLibrary(String query, int page, RateLimiter.Priority priority) {
+        CompletableFuture<String> body = fetch(transport.request(libraryUrl(query, page)).build(), priority);
+        return cancelsUpstream(body, body.thenApplyAsync(text ->
+            indexLibrary(parse(text, response -> responseParser.parseLibraryPage(response, page))), parseExecutor));
+    }
+
+    // Ranked matches from everything fetched so far, without touching the network. Completes
+    // with an empty list when there is no local index.
+    public CompletableFuture<List<TextIndex.Hit>> searchSaved(String query, int limit) {
+        TextIndex textIndex = model.getTextIndex();
+        if (textIndex == null) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        return CompletableFuture.supplyAsync(() -> textIndex.search(query, limit));
+    }
+
+    // Everything parsed is fed to the local index, so cache hits re-index the same keys;
+    // adding a key again just replaces the older copy
+    private Apod indexApod(Apod apod) {
+        TextIndex textIndex = model.getTextIndex();
+        if (textIndex != null && apod.date().isPresent()) {
+            String date = apod.date().get();
+            textIndex.add(new TextIndex.Document("apod:" + date, apod.title(), "APOD " + date, apod.url(),
+                apod.explanation()));
+        }
+        return apod;
+    }
+
+    private LibraryPage indexLibrary(LibraryPage page) {
+        TextIndex textIndex = model.getTextIndex();
+        if (textIndex != null) {
+            for (LibraryItem item : page.items()) {
+                if (item.nasaId().isEmpty()) {
+                    continue;
+                }
+                textIndex.add(new TextIndex.Document("library:" + item.nasaId(), item.title(), "Image Library",
+                    item.previewUrl().orElse(""), item.description()));
+            }
+        }
+        return page;
+    }
+
+    private interface BodyParser<T> {
+        T parse(String body) throws IOException;
+    }
+
+    private static <T> T parse(String body, BodyParser<T> parser) {
+        long start = System.nanoTime();
+        try {
+            return parser.parse(body);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        } finally {
+            Metrics.PARSE.recordSince(start);
+        }
+    }
+
+    public String apodUrl() {
+        return APOD_URL + "?api_key=" + apiKey;
+    }
+
+    public String apodDateUrl(LocalDate date) {
+        return APOD_URL + "?date=" + date + "&api_key=" + apiKey;
+    }
+
+    public String apodRangeUrl(LocalDate start, LocalDate end) {
+        return APOD_URL + "?start_date=" + start + "&end_date=" + end + "&api_key=" + apiKey;
+    }
+
+    public String neoFeedUrl(LocalDate start, LocalDate end) {
+        return NEO_URL + "?start_date=" + start + "&end_date=" + end + "&api_key=" + apiKey;
+    }
+
+    public String libraryUrl(String query, int page) {
+        return IMAGE_LIBRARY_URL + "?q=" + URLEncoder.encode(query, StandardCharsets.UTF_8)
+            + "&media_type=image,video&page=" + page + "&page_size=" + LIBRARY_PAGE_SIZE;
+    }
+
+    public String epicLatestUrl(EpicCollection collection) {
+        return EPIC_URL + collection.path();
+    }
+
+    public String epicDateUrl(EpicCollection collection, LocalDate date) {
+        return EPIC_URL + collection.path() + "/date/" + date;
+    }
+
+    // EPIC metadata only names the image; the archive path is built from its date
+    public static String epicImageUrl(EpicCollection collection, LocalDate date, String imageId) {
+        return epicArchiveUrl(collection, date, "png", imageId);
+    }
+
+    public static String epicJpegUrl(EpicCollection collection, LocalDate date, String imageId) {
+        return epicArchiveUrl(collection, date, "jpg", imageId);
+    }
+
+    private static String epicArchiveUrl(EpicCollection collection, LocalDate date, String format, String imageId) {
+        return EPIC_ARCHIVE_URL + collection.path() + '/' + EPIC_ARCHIVE_DAY.format(date) + '/' + format + '/'
+            + imageId + '.' + format;
+    }
+
+    public CompletableFuture<String> fetch(HttpRequest request) {
+        return fetch(request, RateLimiter.Priority.INTERACTIVE);
+    }
+
+    // Serves the response body from the memory cache, then the disk cache, and only goes
+    // to the network on a miss. The disk is read once, on the parse pool rather than the
+    // caller's thread. Stale disk entries are revalidated with ETag/Last-Modified and are
+    // still served if the network is unreachable.
+    public CompletableFuture<String> fetch(HttpRequest request, RateLimiter.Priority priority) {
+        String url = request.uri().toString();
+        String key = ResponseCache.keyFor(url);
+        noteRequest(key, priority);
+        Duration ttl = cacheTtl(url);
+        String cached = memoryCachedBody(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<String> result = new CompletableFuture<>();
+        CompletableFuture.supplyAsync(() -> diskEntry(key), parseExecutor).whenComplete((stored, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+                return;
+            }
+            if (result.isDone()) {
+                // Cancelled while the disk was read
+                return;
+            }
+            if (stored != null && stored.isFresh(ttl.toMillis())) {
+                result.complete(diskCachedBody(key, ttl, stored));
+                return;
+            }
+            CompletableFuture<String> network = fetchFromNetwork(request, key, ttl, stored, priority);
+            result.whenComplete((body, failure) -> {
+                if (result.isCancelled()) {
+                    network.cancel(false);
+                }
+            });
+            network.whenComplete((body, failure) -> {
+                if (failure != null) {
+                    result.completeExceptionally(failure);
+                } else {
+                    result.complete(body);
+                }
+            });
+        });
+        return result;
+    }
+
+    private CompletableFuture<String> fetchFromNetwork(HttpRequest request, String key, Duration ttl,
+                                                       DiskCache.Entry stored, RateLimiter.Priority priority) {
+        HttpRequest outgoing = stored != null ? revalidationRequest(request, stored) : request;
+        CompletableFuture<HttpResponse<String>> sent = coalescer.send(outgoing, priority);
+        return cancelsUpstream(sent, sent
+            .thenApply(response -> {
+                if (response.statusCode() == 304 && stored != null) {
+                    return revalidated(key, ttl, stored);
+                }
+                if (response.statusCode() != 200) {
+                    // Never hand an error body to the parsers
+                    throw new CompletionException(new HttpStatusException(
+                        response.statusCode(), response.body(), response.headers()));
+                }
+                storeResponse(key, ttl, response.body(), response.headers());
+                LOGGER.fine("Cache miss for " + key + " (" + model.getCacheStats() + ")");
+                return response.body();
+            })
+            .exceptionally(e -> {
+                if (stored == null || !isNetworkFailure(e)) {
+                    throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+                }
+                LOGGER.log(Level.WARNING, "Network unavailable, serving stale copy of " + key, e);
+                return stored.text();
+            }));
+    }
+
+    // Only an unreachable or timed-out network falls back to a stale copy; an answer from
+    // the API itself, a 429 included, is passed on to the caller
+    private static boolean isNetworkFailure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof IOException && !(cause instanceof HttpStatusException);
+    }
+
+    // Cancelling a dependent stage does not reach the stage it was derived from. Linking
+    // them lets a superseded caller abort the exchange underneath instead of only
+    // ignoring its result.
+    private static <T> CompletableFuture<T> cancelsUpstream(CompletableFuture<?> upstream, CompletableFuture<T> derived) {
+        derived.whenComplete((result, error) -> {
+            if (derived.isCancelled()) {
+                upstream.cancel(false);
+            }
+        });
+        return derived;
+    }
+
+    // Lets the idle prefetcher see which of the entries it warmed are asked for
+    public void setInteractiveListener(Consumer<String> listener) {
+        this.interactiveListener = listener;
+    }
+
+    private void noteRequest(String key, RateLimiter.Priority priority) {
+        Consumer<String> listener = interactiveListener;
+        if (listener != null && priority == RateLimiter.Priority.INTERACTIVE) {
+            listener.accept(key);
+        }
+    }
+
+    // Whether a request for the URL would be answered from the caches. Looking does not
+    // count as a hit or move the entry up the LRU order, in memory or on disk.
+    public boolean isCached(String url) {
+        String key = ResponseCache.keyFor(url);
+        if (model.hasCache(key)) {
+            return true;
+        }
+        DiskCache diskCache = model.getDiskCache();
+        return diskCache != null
+            && diskCache.peek(key).map(entry -> entry.isFresh(cacheTtl(url).toMillis())).orElse(false);
+    }
+
+    public boolean isImageCached(String imageUrl) {
+        DiskCache diskCache = model.getDiskCache();
+        return diskCache != null && diskCache.peek(imageCacheKey(imageUrl)).isPresent();
+    }
+
+    private String memoryCachedBody(String key) {
+        String cached = model.getCachedResponse(key);
+        if (cached != null) {
+            LOGGER.fine("Cache hit for " + key + " (" + model.getCacheStats() + ")");
+        }
+        return cached;
+    }
+
+    // Blocks on the disk, so never on the caller's thread
+    private DiskCache.Entry diskEntry(String key) {
+        DiskCache diskCache = model.getDiskCache();
+        return diskCache != null ? diskCache.get(key).orElse(null) : null;
+    }
+
+    private String diskCachedBody(String key, Duration ttl, DiskCache.Entry stored) {
+        LOGGER.fine("Disk cache hit for " + key);
+        String body = stored.text();
+        model.cacheResponse(key, body, ttl);
+        return body;
+    }
+
+    private String revalidated(String key, Duration ttl, DiskCache.Entry stored) {
+        LOGGER.fine("Revalidated " + key);
+        model.getDiskCache().touch(stored);
+        String body = stored.text();
+        model.cacheResponse(key, body, ttl);
+        return body;
+    }
+
+    private void storeResponse(String key, Duration ttl, String body, HttpHeaders headers) {
+        model.cacheResponse(key, body, ttl);
+        DiskCache diskCache = model.getDiskCache();
+        if (diskCache != null && !ttl.isZero()) {
+            diskCache.put(key, body,
+                headers.firstValue("ETag").orElse(null),
+                headers.firstValue("Last-Modified").orElse(null));
+        }
+    }
+
+    // A body cut out of a batch response, cached as if its own URL had been fetched
+    private void storeDerived(String url, String body) {
+        String key = ResponseCache.keyFor(url);
+        Duration ttl = cacheTtl(url);
+        model.cacheResponse(key, body, ttl);
+        DiskCache diskCache = model.getDiskCache();
+        if (diskCache != null && !ttl.isZero()) {
+            diskCache.put(key, body, null, null);
+        }
+    }
+
+    private static HttpRequest revalidationRequest(HttpRequest request, DiskCache.Entry stored) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request, (name, value) -> true);
+        if (stored.etag() != null) {
+            builder.header("If-None-Match", stored.etag());
+        }
+        if (stored.lastModified() != null) {
+            builder.header("If-Modified-Since", stored.lastModified());
+        }
+        return builder.build();
+    }
+
+    // One NEO feed request, both bounds inclusive and at most 7 days apart
+    public CompletableFuture<Integer> streamNeoFeed(LocalDate start, LocalDate end, Consumer<NeoApproach> sink) {
+        return streamNeoFeed(transport.request(neoFeedUrl(start, end)).build(), sink, RateLimiter.Priority.INTERACTIVE);
+    }
+
+    // Only fills the caches; the rows are parsed on the way through and dropped
+    public CompletableFuture<Integer> prefetchNeoWindow(LocalDate start, LocalDate end) {
+        return streamNeoFeed(transport.request(neoFeedUrl(start, end)).build(), row -> { },
+            RateLimiter.Priority.BACKGROUND);
+    }
+
+    // Streams the NEO feed through the pull parser so rows reach the sink while the body is
+    // still downloading; the raw bytes are captured on the way through for the caches.
+    // Concurrent requests for the same window share one download: the first caller's sink
+    // sees the rows as they stream, later callers get them all once it is done. An
+    // interactive caller joining a queued background download moves it up, as in
+    // RequestCoalescer.
+    private CompletableFuture<Integer> streamNeoFeed(HttpRequest request, Consumer<NeoApproach> sink,
+                                                     RateLimiter.Priority priority) {
+        String url = request.uri().toString();
+        String key = ResponseCache.keyFor(url);
+        noteRequest(key, priority);
+        Duration ttl = cacheTtl(url);
+        String cached = memoryCachedBody(key);
+        if (cached != null) {
+            return CompletableFuture.supplyAsync(() -> parseNeoFeed(cached, sink), parseExecutor);
+        }
+
+        NeoFlight flight = new NeoFlight(priority);
+        NeoFlight existing = neoFlights.putIfAbsent(key, flight);
+        if (existing != null) {
+            LOGGER.fine("Joined in-flight NEO feed request for " + key);
+            if (priority == RateLimiter.Priority.INTERACTIVE) {
+                existing.priority = priority;
+                CompletableFuture<?> exchange = existing.exchange;
+                if (exchange != null && transport.promote(exchange)) {
+                    LOGGER.fine("Promoted queued background NEO feed request for " + key);
+                }
+            }
+            return existing.rows.thenApplyAsync(rows -> {
+                rows.forEach(sink);
+                return rows.size();
+            }, parseExecutor);
+        }
+
+        // The shared rows are collected whatever the first caller's sink does with them
+        List<NeoApproach> collected = new ArrayList<>();
+        RuntimeException[] sinkFailure = new RuntimeException[1];
+        Consumer<NeoApproach> shared = row -> {
+            collected.add(row);
+            if (sinkFailure[0] == null) {
+                try {
+                    sink.accept(row);
+                } catch (RuntimeException e) {
+                    sinkFailure[0] = e;
+                }
+            }
+        };
+        return downloadNeoFeed(request, key, ttl, shared, flight).handle((count, error) -> {
+            neoFlights.remove(key, flight);
+            if (error != null) {
+                flight.rows.completeExceptionally(error);
+                throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+            }
+            flight.rows.complete(collected);
+            if (sinkFailure[0] != null) {
+                throw sinkFailure[0];
+            }
+            return count;
+        });
+    }
+
+    private CompletableFuture<Integer> downloadNeoFeed(HttpRequest request, String key, Duration ttl,
+                                                       Consumer<NeoApproach> sink, NeoFlight flight) {
+        return CompletableFuture.supplyAsync(() -> diskEntry(key), parseExecutor).thenCompose(stored -> {
+            if (stored != null && stored.isFresh(ttl.toMillis())) {
+                return CompletableFuture.completedFuture(parseNeoFeed(diskCachedBody(key, ttl, stored), sink));
+            }
+            HttpRequest outgoing = stored != null ? revalidationRequest(request, stored) : request;
+            RateLimiter.Priority priority = flight.priority;
+            CompletableFuture<HttpResponse<InputStream>> exchange = transport.sendStream(outgoing, priority);
+            flight.exchange = exchange;
+            if (flight.priority != priority) {
+                // An interactive caller joined while the request was being handed over
+                transport.promote(exchange);
+            }
+            return exchange.handleAsync((response, error) -> {
+                if (error != null) {
+                    if (stored == null || !isNetworkFailure(error)) {
+                        throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+                    }
+                    LOGGER.log(Level.WARNING, "Network unavailable, serving stale copy of " + key, error);
+                    return parseNeoFeed(stored.text(), sink);
+                }
+                try (CapturingInputStream in = new CapturingInputStream(response.body())) {
+                    if (response.statusCode() == 304 && stored != null) {
+                        return parseNeoFeed(revalidated(key, ttl, stored), sink);
+                    }
+                    if (response.statusCode() != 200) {
+                        throw new HttpStatusException(response.statusCode(),
+                            new String(in.readAllBytes(), StandardCharsets.UTF_8), response.headers());
+                    }
+                    int count = neoFeedParser.parse(in, sink);
+                    storeResponse(key, ttl, in.captured(), response.headers());
+                    return count;
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, parseExecutor);
+        });
+    }
+
+    private static final class NeoFlight {
+        final CompletableFuture<List<NeoApproach>> rows = new CompletableFuture<>();
+        volatile CompletableFuture<?> exchange;
+        // Raised to INTERACTIVE by the first interactive caller to join
+        volatile RateLimiter.Priority priority;
+
+        NeoFlight(RateLimiter.Priority priority) {
+            this.priority = priority;
+        }
+    }
+
+    // Only cached bodies count towards the parse histogram; a streamed parse runs at the
+    // speed of the download and shows up under body instead
+    private int parseNeoFeed(String body, Consumer<NeoApproach> sink) {
+        long start = System.nanoTime();
+        try {
+            return neoFeedParser.parse(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), sink);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        } finally {
+            Metrics.PARSE.recordSince(start);
+        }
+    }
+
+    // Image bytes never change for a given URL, so the disk copy is used without revalidation
+    public byte[] loadImageBytes(String imageUrl) throws IOException, InterruptedException {
+        return loadImageBytes(imageUrl, RateLimiter.Priority.INTERACTIVE);
+    }
+
+    public byte[] loadImageBytes(String imageUrl, RateLimiter.Priority priority) throws IOException, InterruptedException {
+        String key = imageCacheKey(imageUrl);
+        noteRequest(key, priority);
+        DiskCache diskCache = model.getDiskCache();
+        if (diskCache != null) {
+            Optional<DiskCache.Entry> stored = diskCache.get(key);
+            if (stored.isPresent()) {
+                LOGGER.fine("Disk cache hit for image " + key);
+                return stored.get().bytes();
+            }
+        }
+
+        // The gallery and the media panel often want the same image at the same time;
+        // only the first caller downloads it
+        CompletableFuture<byte[]> download = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = imageDownloads.putIfAbsent(key, download);
+        if (existing != null) {
+            try {
+                return existing.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+            }
+        }
+        try {
+            byte[] body = downloadImage(imageUrl, key, diskCache, priority);
+            download.complete(body);
+            return body;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            download.completeExceptionally(e);
+            throw e;
+        } finally {
+            imageDownloads.remove(key, download);
+        }
+    }
+
+    private byte[] downloadImage(String imageUrl, String key, DiskCache diskCache, RateLimiter.Priority priority)
+            throws IOException, InterruptedException {
+        HttpRequest request = transport.request(imageUrl).build();
+        HttpResponse<byte[]> response = transport.sendBytes(request, priority);
+        if (response.statusCode() != 200) {
+            throw new IOException("HTTP " + response.statusCode() + " for " + response.uri());
+        }
+        if (diskCache != null) {
+            diskCache.put(key, response.body(),
+                response.headers().firstValue("ETag").orElse(null),
+                response.headers().firstValue("Last-Modified").orElse(null));
+        }
+        return response.body();
+    }
+
+    static String imageCacheKey(String imageUrl) {
+        try {
+            return ResponseCache.keyFor(imageUrl);
+        } catch (IllegalArgumentException e) {
+            return imageUrl;
+        }
+    }
+
+    private static Duration cacheTtl(String url) {
+        if (url.startsWith(APOD_URL)) {
+            // A past day's picture never changes; today's entry can still be swapped out
+            return url.contains("date=") && !url.contains("date=" + ApodArchive.today())
+                ? APOD_PAST_TTL
+                : APOD_TODAY_TTL;
+        } else if (url.startsWith(MARS_ROVER_URL)) {
+            return MARS_ROVER_TTL;
+        } else if (url.startsWith(NEO_URL)) {
+            return NEO_TTL;
+        } else if (url.startsWith(IMAGE_LIBRARY_URL)) {
+            return IMAGE_LIBRARY_TTL;
+        } else if (url.startsWith(EPIC_URL)) {
+            // Only the latest-day listing moves; a dated one is complete once the day is over
+            return url.contains("/date/") && !url.endsWith("/date/" + LocalDate.now()) ? EPIC_PAST_TTL : EPIC_TTL;
+        }
+        return Duration.ZERO;
+    }
+
+    public ResponseCache.Stats getCacheStats() {
+        return model.getCacheStats();
+    }
+
+    public void shutdown() {
+        transport.shutdown();
+        parseExecutor.shutdownNow();
+        if (model.getTextIndex() != null) {
+            model.getTextIndex().shutdown();
+        }
+    }
+}
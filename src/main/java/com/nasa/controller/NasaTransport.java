@@ -0,0 +1,415 @@
+package com.nasa.controller;
+
+import com.nasa.metrics.FetchEvent;
+import com.nasa.metrics.Metrics;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+// The one HttpClient every JSON and binary fetch goes through, so connections to
+// api.nasa.gov, images-api/images-assets.nasa.gov and epic.gsfc.nasa.gov are pooled
+// and reused. Responses are requested gzip-encoded and decoded transparently. Every
+// exchange is timed stage by stage into Metrics and marked with a FetchEvent.
+public class NasaTransport {
+    private static final Logger LOGGER = Logger.getLogger(NasaTransport.class.getName());
+    private static final String USER_AGENT = "NASA-App/1.0";
+    private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(60);
+    private static final int CLIENT_THREADS = 8;
+    // Sends every request to this base URL instead, with the original host as the first
+    // path segment: https://api.nasa.gov/planetary/apod becomes <base>/api.nasa.gov/planetary/apod.
+    // For running the whole app against local stubs, see UiLatencyHarness. Applied as the
+    // request goes out, so the caches and the rate limiter still see the real URL.
+    private static final String ENDPOINT_OVERRIDE = System.getProperty("nasa.endpoint.override");
+    // Keeps the key out of JFR recordings
+    private static final Pattern API_KEY = Pattern.compile("api_key=[^&]*");
+
+    private final HttpClient client;
+    private final ExecutorService executor;
+    private final Duration requestTimeout;
+    private volatile RateLimiter rateLimiter;
+    private volatile String rateLimitedHost;
+
+    public NasaTransport() {
+        this(DEFAULT_CONNECT_TIMEOUT, DEFAULT_REQUEST_TIMEOUT);
+    }
+
+    public NasaTransport(Duration connectTimeout, Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+        // Only the client's own delivery runs here; streamed bodies are read by the caller on
+        // a pool of its own. Tasks queue rather than ever running on the selector thread.
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(CLIENT_THREADS, CLIENT_THREADS, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "nasa-http-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = pool;
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(connectTimeout)
+            .executor(executor)
+            .build();
+        LOGGER.fine("HTTP transport ready (connect timeout " + connectTimeout + ", request timeout " + requestTimeout + ")");
+    }
+
+    // A GET builder with the transport's defaults already applied
+    public HttpRequest.Builder request(String url) {
+        return HttpRequest.newBuilder()
+            .uri(URI.create(url))
+            .timeout(requestTimeout)
+            .header("User-Agent", USER_AGENT)
+            .header("Accept-Encoding", "gzip")
+            .GET();
+    }
+
+    private static HttpRequest outgoing(HttpRequest request) {
+        URI uri = request.uri();
+        if (ENDPOINT_OVERRIDE == null || uri.getHost() == null) {
+            return request;
+        }
+        return HttpRequest.newBuilder(request, (name, value) -> true)
+            .uri(URI.create(ENDPOINT_OVERRIDE + "/" + uri.getHost() + uri.getRawPath()
+                + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "")))
+            .build();
+    }
+
+    // Requests to the given host are queued through the limiter; other hosts are not metered
+    public void setRateLimiter(String host, RateLimiter rateLimiter) {
+        this.rateLimitedHost = host;
+        this.rateLimiter = rateLimiter;
+    }
+
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    // See RateLimiter.promote; requests to other hosts never wait, so there is nothing to do
+    public boolean promote(CompletableFuture<?> response) {
+        RateLimiter limiter = rateLimiter;
+        return limiter != null && limiter.promote(response);
+    }
+
+    public CompletableFuture<HttpResponse<String>> sendString(HttpRequest request) {
+        return sendString(request, RateLimiter.Priority.INTERACTIVE);
+    }
+
+    public CompletableFuture<HttpResponse<String>> sendString(HttpRequest request, RateLimiter.Priority priority) {
+        return send(request, priority, NasaTransport::stringHandler);
+    }
+
+    public CompletableFuture<HttpResponse<InputStream>> sendStream(HttpRequest request) {
+        return sendStream(request, RateLimiter.Priority.INTERACTIVE);
+    }
+
+    // Reading the body blocks until the bytes arrive, so it must happen in an async stage on
+    // an executor of the caller's own, never in a stage that runs on the client's threads
+    public CompletableFuture<HttpResponse<InputStream>> sendStream(HttpRequest request, RateLimiter.Priority priority) {
+        return send(request, priority, NasaTransport::streamHandler);
+    }
+
+    public CompletableFuture<HttpResponse<byte[]>> sendBytesAsync(HttpRequest request) {
+        return sendBytesAsync(request, RateLimiter.Priority.INTERACTIVE);
+    }
+
+    public CompletableFuture<HttpResponse<byte[]>> sendBytesAsync(HttpRequest request, RateLimiter.Priority priority) {
+        return send(request, priority, NasaTransport::bytesHandler);
+    }
+
+    public HttpResponse<byte[]> sendBytes(HttpRequest request) throws IOException, InterruptedException {
+        return sendBytes(request, RateLimiter.Priority.INTERACTIVE);
+    }
+
+    public HttpResponse<byte[]> sendBytes(HttpRequest request, RateLimiter.Priority priority)
+            throws IOException, InterruptedException {
+        if (isRateLimited(request)) {
+            try {
+                return sendBytesAsync(request, priority).get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+            }
+        }
+        Trace trace = new Trace(request, priority);
+        trace.sent(false);
+        try {
+            return client.send(outgoing(request), traced(NasaTransport::bytesHandler, trace));
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            trace.finish(0, e);
+            throw e;
+        }
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> send(HttpRequest request, RateLimiter.Priority priority,
+                                                        HttpResponse.BodyHandler<T> handler) {
+        Trace trace = new Trace(request, priority);
+        HttpResponse.BodyHandler<T> traced = traced(handler, trace);
+        CompletableFuture<HttpResponse<T>> response;
+        if (!isRateLimited(request)) {
+            trace.sent(false);
+            response = client.sendAsync(outgoing(request), traced);
+        } else {
+            response = rateLimiter.submit(priority, () -> {
+                trace.sent(true);
+                return client.sendAsync(outgoing(request), traced);
+            });
+        }
+        // Successful exchanges are finished by the body subscriber, which sees the last byte
+        response.whenComplete((result, error) -> {
+            if (error != null) {
+                trace.finish(0, error);
+            }
+        });
+        return response;
+    }
+
+    private boolean isRateLimited(HttpRequest request) {
+        return rateLimiter != null && request.uri().getHost() != null
+            && request.uri().getHost().equalsIgnoreCase(rateLimitedHost);
+    }
+
+    public HttpClient getClient() {
+        return client;
+    }
+
+    public void shutdown() {
+        RateLimiter limiter = rateLimiter;
+        if (limiter != null) {
+            limiter.shutdown();
+        }
+        executor.shutdownNow();
+    }
+
+    private static <T> HttpResponse.BodyHandler<T> traced(HttpResponse.BodyHandler<T> handler, Trace trace) {
+        return info -> {
+            trace.headers(info.statusCode());
+            return new CountingSubscriber<>(handler.apply(info), trace);
+        };
+    }
+
+    private static boolean isGzip(HttpResponse.ResponseInfo info) {
+        return info.headers().firstValue("Content-Encoding")
+            .map(encoding -> encoding.equalsIgnoreCase("gzip"))
+            .orElse(false);
+    }
+
+    private static HttpResponse.BodySubscriber<byte[]> bytesHandler(HttpResponse.ResponseInfo info) {
+        if (!isGzip(info)) {
+            return HttpResponse.BodySubscribers.ofByteArray();
+        }
+        return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArray(), NasaTransport::gunzip);
+    }
+
+    private static HttpResponse.BodySubscriber<String> stringHandler(HttpResponse.ResponseInfo info) {
+        Charset charset = charsetOf(info);
+        if (!isGzip(info)) {
+            return HttpResponse.BodySubscribers.ofString(charset);
+        }
+        return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArray(),
+            bytes -> new String(gunzip(bytes), charset));
+    }
+
+    private static HttpResponse.BodySubscriber<InputStream> streamHandler(HttpResponse.ResponseInfo info) {
+        if (!isGzip(info)) {
+            return HttpResponse.BodySubscribers.ofInputStream();
+        }
+        // GZIPInputStream reads its header in the constructor, which must not happen
+        // on the thread completing the subscriber, so wrap lazily
+        return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofInputStream(), LazyGzipInputStream::new);
+    }
+
+    private static byte[] gunzip(byte[] compressed) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Charset charsetOf(HttpResponse.ResponseInfo info) {
+        String contentType = info.headers().firstValue("Content-Type").orElse("");
+        int index = contentType.toLowerCase().indexOf("charset=");
+        if (index >= 0) {
+            try {
+                return Charset.forName(contentType.substring(index + 8).replace("\"", "").trim());
+            } catch (IllegalArgumentException e) {
+                // Unknown charset, fall through to UTF-8
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    private static final class LazyGzipInputStream extends InputStream {
+        private final InputStream raw;
+        private GZIPInputStream gzip;
+
+        LazyGzipInputStream(InputStream raw) {
+            this.raw = raw;
+        }
+
+        private InputStream delegate() throws IOException {
+            if (gzip == null) {
+                gzip = new GZIPInputStream(raw, 16 * 1024);
+            }
+            return gzip;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return delegate().read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            return delegate().read(buffer, offset, length);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return gzip == null ? 0 : gzip.available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (gzip != null) {
+                gzip.close();
+            } else {
+                raw.close();
+            }
+        }
+    }
+
+    // Timing of one exchange: queued (or sent, when the host is not metered), headers
+    // received, last byte read
+    private static final class Trace {
+        private final FetchEvent event = new FetchEvent();
+        private final long queued = System.nanoTime();
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private volatile long sent = queued;
+        private volatile long headers;
+
+        Trace(HttpRequest request, RateLimiter.Priority priority) {
+            event.begin();
+            if (event.isEnabled()) {
+                event.url = API_KEY.matcher(request.uri().toString()).replaceAll("api_key=***");
+                event.host = request.uri().getHost();
+                event.priority = priority.name();
+            }
+        }
+
+        void sent(boolean wasQueued) {
+            sent = System.nanoTime();
+            if (wasQueued) {
+                event.queueWait = sent - queued;
+                Metrics.QUEUE_WAIT.record(event.queueWait);
+            }
+        }
+
+        void headers(int status) {
+            headers = System.nanoTime();
+            event.status = status;
+            event.timeToHeaders = headers - sent;
+            Metrics.HTTP.record(event.timeToHeaders);
+        }
+
+        // Idempotent: a failed body also fails the response future
+        void finish(long bytes, Throwable error) {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            if (error == null) {
+                Metrics.BODY.recordSince(headers);
+                Metrics.RESPONSE_BYTES.record(bytes);
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.bytes = bytes;
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                event.error = cause != null ? cause.toString() : null;
+                event.commit();
+            }
+        }
+    }
+
+    // Counts the body bytes as they arrive off the wire (before gunzipping) and finishes
+    // the trace on the last one, or when the reader closes the stream early
+    private static final class CountingSubscriber<T> implements HttpResponse.BodySubscriber<T> {
+        private final HttpResponse.BodySubscriber<T> delegate;
+        private final Trace trace;
+        private volatile long bytes;
+
+        CountingSubscriber(HttpResponse.BodySubscriber<T> delegate, Trace trace) {
+            this.delegate = delegate;
+            this.trace = trace;
+        }
+
+        @Override
+        public CompletionStage<T> getBody() {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            delegate.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    subscription.request(n);
+                }
+
+                @Override
+                public void cancel() {
+                    trace.finish(bytes, null);
+                    subscription.cancel();
+                }
+            });
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            long received = 0;
+            for (ByteBuffer item : items) {
+                received += item.remaining();
+            }
+            bytes += received;
+            delegate.onNext(items);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            trace.finish(bytes, error);
+            delegate.onError(error);
+        }
+
+        @Override
+        public void onComplete() {
+            trace.finish(bytes, null);
+            delegate.onComplete();
+        }
+    }
+}
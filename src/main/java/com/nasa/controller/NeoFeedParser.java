@@ -0,0 +1,224 @@
+package com.nasa.controller;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.nasa.model.NeoApproach;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+// Pull parser for /neo/rest/v1/feed that hands each close approach to the sink as soon
+// as it has been read, without building a tree for the whole document
+public class NeoFeedParser {
+    private final JsonFactory jsonFactory;
+
+    public NeoFeedParser(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    public int parse(InputStream in, Consumer<NeoApproach> sink) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Unexpected NEO data format in the response");
+            }
+
+            int count = 0;
+            boolean sawObjects = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "near_earth_objects":
+                        sawObjects = true;
+                        count += parseDates(parser, sink);
+                        break;
+                    case "error":
+                        throw new IOException("API Error: " + readErrorMessage(parser));
+                    case "error_message":
+                        throw new IOException("API Error: " + parser.getText());
+                    default:
+                        parser.skipChildren();
+                }
+            }
+            if (!sawObjects) {
+                throw new IOException("No near earth objects data found in the response");
+            }
+            return count;
+        }
+    }
+
+    private int parseDates(JsonParser parser, Consumer<NeoApproach> sink) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Unexpected NEO data format in the response");
+        }
+        int count = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String date = parser.getCurrentName();
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                sink.accept(parseObject(parser, date));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private NeoApproach parseObject(JsonParser parser, String date) throws IOException {
+        String id = null;
+        String name = "Unknown";
+        boolean hazardous = false;
+        double diameterMin = Double.NaN;
+        double diameterMax = Double.NaN;
+        long epochMillis = 0;
+        double missKm = Double.NaN;
+        double missLunar = Double.NaN;
+        double velocity = Double.NaN;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id":
+                    id = parser.getText();
+                    break;
+                case "name":
+                    name = parser.getText();
+                    break;
+                case "is_potentially_hazardous_asteroid":
+                    hazardous = value == JsonToken.VALUE_TRUE;
+                    break;
+                case "estimated_diameter":
+                    double[] meters = readDiameterMeters(parser);
+                    diameterMin = meters[0];
+                    diameterMax = meters[1];
+                    break;
+                case "close_approach_data":
+                    if (value != JsonToken.START_ARRAY) {
+                        parser.skipChildren();
+                        break;
+                    }
+                    boolean first = true;
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        if (!first) {
+                            parser.skipChildren();
+                            continue;
+                        }
+                        first = false;
+                        // Only the first approach is in the requested window
+                        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                            String approachField = parser.getCurrentName();
+                            parser.nextToken();
+                            switch (approachField) {
+                                case "epoch_date_close_approach":
+                                    epochMillis = parser.getValueAsLong();
+                                    break;
+                                case "relative_velocity":
+                                    velocity = readNumberField(parser, "kilometers_per_second");
+                                    break;
+                                case "miss_distance":
+                                    double[] miss = readMissDistance(parser);
+                                    missKm = miss[0];
+                                    missLunar = miss[1];
+                                    break;
+                                default:
+                                    parser.skipChildren();
+                            }
+                        }
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return new NeoApproach(id, name, date, epochMillis, diameterMin, diameterMax,
+            missKm, missLunar, velocity, hazardous);
+    }
+
+    private static double[] readDiameterMeters(JsonParser parser) throws IOException {
+        double[] meters = {Double.NaN, Double.NaN};
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return meters;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String unit = parser.getCurrentName();
+            parser.nextToken();
+            if (!"meters".equals(unit) || parser.currentToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String bound = parser.getCurrentName();
+                parser.nextToken();
+                if ("estimated_diameter_min".equals(bound)) {
+                    meters[0] = parser.getValueAsDouble(Double.NaN);
+                } else if ("estimated_diameter_max".equals(bound)) {
+                    meters[1] = parser.getValueAsDouble(Double.NaN);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return meters;
+    }
+
+    private static double[] readMissDistance(JsonParser parser) throws IOException {
+        double[] miss = {Double.NaN, Double.NaN};
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return miss;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String unit = parser.getCurrentName();
+            parser.nextToken();
+            if ("kilometers".equals(unit)) {
+                miss[0] = parser.getValueAsDouble(Double.NaN);
+            } else if ("lunar".equals(unit)) {
+                miss[1] = parser.getValueAsDouble(Double.NaN);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return miss;
+    }
+
+    // NASA sends most of the approach numbers as strings, getValueAsDouble parses both forms
+    private static double readNumberField(JsonParser parser, String name) throws IOException {
+        double result = Double.NaN;
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return result;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if (name.equals(field)) {
+                result = parser.getValueAsDouble(Double.NaN);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return result;
+    }
+
+    private static String readErrorMessage(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return parser.getText();
+        }
+        String message = "Unknown error";
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if ("message".equals(field)) {
+                message = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return message;
+    }
+}
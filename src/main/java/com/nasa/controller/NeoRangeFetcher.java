@@ -0,0 +1,213 @@
+package com.nasa.controller;
+
+import com.nasa.model.NeoApproach;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+// Splits an arbitrary NEO date range into the feed's 7-day windows, fetches them with
+// bounded parallelism and hands the results back in date order as windows complete.
+// A range that fits in one request is fetched exactly as asked. Longer ranges are cut on
+// a fixed weekly grid, so overlapping ranges hit the same cached URLs.
+public class NeoRangeFetcher {
+    private static final Logger LOGGER = Logger.getLogger(NeoRangeFetcher.class.getName());
+    public static final int WINDOW_DAYS = 7;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long BASE_BACKOFF_MILLIS = 1000;
+    // Rows of the head window are passed on in batches of this size while it downloads
+    private static final int STREAM_BATCH = 64;
+
+    private static final Comparator<NeoApproach> BY_APPROACH = Comparator
+        .comparing(NeoApproach::approachDate)
+        .thenComparingLong(NeoApproach::epochMillis);
+
+    // Fetches a single window, both bounds inclusive, handing each row to the consumer as
+    // it is parsed; completes with the number of rows
+    public interface WindowSource {
+        CompletableFuture<Integer> fetch(LocalDate start, LocalDate end, Consumer<NeoApproach> rows);
+    }
+
+    // Both bounds inclusive
+    public record Window(LocalDate start, LocalDate end) {
+    }
+
+    private final WindowSource source;
+    private final int parallelism;
+
+    public NeoRangeFetcher(WindowSource source, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        this.source = source;
+        this.parallelism = parallelism;
+    }
+
+    // Grid windows can reach outside the range; their rows are filtered when emitted
+    public static List<Window> windows(LocalDate start, LocalDate end) {
+        if (end.toEpochDay() - start.toEpochDay() < WINDOW_DAYS) {
+            return List.of(new Window(start, end));
+        }
+        List<Window> windows = new ArrayList<>();
+        long first = Math.floorDiv(start.toEpochDay(), WINDOW_DAYS) * WINDOW_DAYS;
+        for (long day = first; day <= end.toEpochDay(); day += WINDOW_DAYS) {
+            windows.add(new Window(LocalDate.ofEpochDay(day), LocalDate.ofEpochDay(day + WINDOW_DAYS - 1)));
+        }
+        return windows;
+    }
+
+    // The sink is called with each window's rows, in date order and never concurrently.
+    // The head window is always next in line, so its rows are passed on in feed order while
+    // it downloads; every later window is buffered and sorted by approach.
+    // Cancelling the returned future stops any windows that have not started yet.
+    public CompletableFuture<Integer> fetch(LocalDate start, LocalDate end, Consumer<List<NeoApproach>> sink) {
+        if (end.isBefore(start)) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("End date is before start date"));
+        }
+        List<Window> windows = windows(start, end);
+        String from = start.toString();
+        String to = end.toString();
+
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        OrderedEmitter emitter = new OrderedEmitter(windows.size(), sink, result);
+        AtomicInteger nextWindow = new AtomicInteger();
+        for (int worker = 0; worker < Math.min(parallelism, windows.size()); worker++) {
+            runNext(windows, nextWindow, emitter, result, from, to);
+        }
+        LOGGER.fine("Fetching " + windows.size() + " NEO windows for " + from + " to " + to);
+        return result;
+    }
+
+    private void runNext(List<Window> windows, AtomicInteger nextWindow, OrderedEmitter emitter,
+                         CompletableFuture<Integer> result, String from, String to) {
+        if (result.isDone()) {
+            return;
+        }
+        int index = nextWindow.getAndIncrement();
+        if (index >= windows.size()) {
+            return;
+        }
+        Window window = windows.get(index);
+        boolean head = index == 0;
+        // Filled on the thread parsing the window and read once its fetch has completed
+        List<NeoApproach> inRange = new ArrayList<>();
+        Consumer<NeoApproach> rows = neo -> {
+            if (result.isDone()) {
+                // Stop parsing for a range that was cancelled or has failed
+                throw new CancellationException();
+            }
+            String date = neo.approachDate();
+            if (date.compareTo(from) < 0 || date.compareTo(to) > 0) {
+                return;
+            }
+            inRange.add(neo);
+            if (head && inRange.size() == STREAM_BATCH) {
+                emitter.stream(index, new ArrayList<>(inRange));
+                inRange.clear();
+            }
+        };
+        fetchWithBackoff(window, rows, 1)
+            .whenComplete((count, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                    return;
+                }
+                if (!head) {
+                    inRange.sort(BY_APPROACH);
+                }
+                emitter.complete(index, inRange);
+                runNext(windows, nextWindow, emitter, result, from, to);
+            });
+    }
+
+    // Only a status error is retried, and it arrives before any row, so a retry never
+    // hands the same row over twice
+    private CompletableFuture<Integer> fetchWithBackoff(Window window, Consumer<NeoApproach> rows, int attempt) {
+        LocalDate start = window.start();
+        return source.fetch(start, window.end(), rows)
+            .handle((count, error) -> {
+                if (error == null) {
+                    return CompletableFuture.completedFuture(count);
+                }
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (cause instanceof HttpStatusException && ((HttpStatusException) cause).isRetryable() && attempt < MAX_ATTEMPTS) {
+                    long delay = backoffMillis((HttpStatusException) cause, attempt);
+                    LOGGER.warning("NEO window " + start + " rate limited, retrying in " + delay + " ms");
+                    return CompletableFuture.supplyAsync(() -> null,
+                            CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS))
+                        .thenCompose(ignored -> fetchWithBackoff(window, rows, attempt + 1));
+                }
+                return CompletableFuture.<Integer>failedFuture(cause);
+            })
+            .thenCompose(future -> future);
+    }
+
+    private static long backoffMillis(HttpStatusException error, int attempt) {
+        long exponential = BASE_BACKOFF_MILLIS << (attempt - 1);
+        long base = error.getRetryAfter().map(Duration::toMillis).orElse(exponential);
+        return base + ThreadLocalRandom.current().nextLong(BASE_BACKOFF_MILLIS / 2);
+    }
+
+    // Buffers windows that finish early until every window before them has been emitted
+    private static final class OrderedEmitter {
+        private final List<List<NeoApproach>> pending;
+        private final Consumer<List<NeoApproach>> sink;
+        private final CompletableFuture<Integer> result;
+        private int nextToEmit;
+        private int emittedRows;
+
+        OrderedEmitter(int windows, Consumer<List<NeoApproach>> sink, CompletableFuture<Integer> result) {
+            this.pending = new ArrayList<>(windows);
+            for (int i = 0; i < windows; i++) {
+                pending.add(null);
+            }
+            this.sink = sink;
+            this.result = result;
+        }
+
+        // Rows of a window that is next in line, passed on before the window has finished
+        synchronized void stream(int index, List<NeoApproach> rows) {
+            if (index != nextToEmit || result.isDone()) {
+                return;
+            }
+            try {
+                sink.accept(rows);
+                emittedRows += rows.size();
+            } catch (CancellationException e) {
+                result.cancel(false);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        synchronized void complete(int index, List<NeoApproach> rows) {
+            pending.set(index, rows);
+            try {
+                while (nextToEmit < pending.size() && pending.get(nextToEmit) != null && !result.isDone()) {
+                    List<NeoApproach> ready = pending.set(nextToEmit, null);
+                    nextToEmit++;
+                    sink.accept(ready);
+                    emittedRows += ready.size();
+                }
+            } catch (CancellationException e) {
+                result.cancel(false);
+                return;
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            if (nextToEmit == pending.size()) {
+                result.complete(emittedRows);
+            }
+        }
+    }
+}
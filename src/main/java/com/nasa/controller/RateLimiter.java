@@ -0,0 +1,271 @@
+package com.nasa.controller;
+
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+// Token bucket in front of api.nasa.gov (or any one metered host). Requests queue here until a token is free;
+// interactive requests always go before background ones, and background requests leave
+// a few tokens in reserve so a click never waits behind prefetching. The bucket follows
+// the server's X-RateLimit-* headers, and a 429/503 pauses all dispatch for a jittered,
+// exponentially growing interval (or the server's Retry-After).
+public class RateLimiter {
+    private static final Logger LOGGER = Logger.getLogger(RateLimiter.class.getName());
+    public static final String DEMO_KEY = "DEMO_KEY";
+    // api.nasa.gov quotas are per rolling hour
+    private static final int DEMO_KEY_HOURLY_LIMIT = 30;
+    private static final int DEFAULT_HOURLY_LIMIT = 1000;
+    private static final long BASE_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(2);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    public enum Priority {
+        INTERACTIVE,
+        BACKGROUND
+    }
+
+    private final ArrayDeque<Pending<?>> interactive = new ArrayDeque<>();
+    private final ArrayDeque<Pending<?>> background = new ArrayDeque<>();
+    private final ScheduledExecutorService scheduler;
+
+    private final long windowNanos;
+    private double capacity;
+    private double tokensPerNano;
+    private double tokens;
+    private long lastRefill;
+    private long pausedUntil;
+    private int consecutiveFailures;
+    private boolean drainScheduled;
+
+    public RateLimiter(int hourlyLimit) {
+        this(hourlyLimit, TimeUnit.HOURS.toNanos(1));
+    }
+
+    // A quota of limit requests per rolling window; the X-RateLimit-Limit header is read in
+    // the same unit. Shorter windows let the benchmark harness compress an hour into seconds.
+    public RateLimiter(int limit, long windowNanos) {
+        if (limit <= 0 || windowNanos <= 0) {
+            throw new IllegalArgumentException("Limit and window must be positive");
+        }
+        this.windowNanos = windowNanos;
+        setLimit(limit);
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+        this.pausedUntil = lastRefill;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "nasa-rate-limiter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static RateLimiter forApiKey(String apiKey) {
+        return new RateLimiter(DEMO_KEY.equals(apiKey) ? DEMO_KEY_HOURLY_LIMIT : DEFAULT_HOURLY_LIMIT);
+    }
+
+    // Queues the exchange and starts it once a token is available. Cancelling the returned
+    // future before then drops the request without spending a token.
+    public <T> CompletableFuture<HttpResponse<T>> submit(Priority priority,
+                                                         Supplier<CompletableFuture<HttpResponse<T>>> exchange) {
+        Pending<T> pending = new Pending<>(exchange);
+        synchronized (this) {
+            (priority == Priority.INTERACTIVE ? interactive : background).add(pending);
+        }
+        drain();
+        return pending.result;
+    }
+
+    // Moves a request still queued as background work over to the interactive queue, for
+    // when a user has started waiting on it. Takes the future submit() returned; false if
+    // it is not queued here as background work (already started, or interactive).
+    public boolean promote(CompletableFuture<?> request) {
+        boolean promoted = false;
+        synchronized (this) {
+            Iterator<Pending<?>> queued = background.iterator();
+            while (queued.hasNext()) {
+                Pending<?> pending = queued.next();
+                if (pending.result == request) {
+                    queued.remove();
+                    interactive.add(pending);
+                    promoted = true;
+                    break;
+                }
+            }
+        }
+        if (promoted) {
+            drain();
+        }
+        return promoted;
+    }
+
+    public synchronized int getQueuedCount() {
+        return interactive.size() + background.size();
+    }
+
+    public synchronized int getCapacity() {
+        return (int) capacity;
+    }
+
+    public synchronized int getAvailableTokens() {
+        refill(System.nanoTime());
+        return (int) tokens;
+    }
+
+    private void drain() {
+        List<Pending<?>> ready = new ArrayList<>();
+        synchronized (this) {
+            long now = System.nanoTime();
+            refill(now);
+            if (now - pausedUntil >= 0) {
+                take(interactive, 1, ready);
+                // Background work only runs while there is headroom left for the user
+                take(background, 1 + interactiveReserve(), ready);
+            }
+            scheduleDrain(now);
+        }
+        for (Pending<?> pending : ready) {
+            pending.start();
+        }
+    }
+
+    private void take(ArrayDeque<Pending<?>> queue, double minimumTokens, List<Pending<?>> ready) {
+        while (!queue.isEmpty() && tokens >= minimumTokens) {
+            Pending<?> pending = queue.poll();
+            if (pending.result.isDone()) {
+                // Cancelled while it was waiting
+                continue;
+            }
+            tokens -= 1;
+            ready.add(pending);
+        }
+    }
+
+    private void scheduleDrain(long now) {
+        if (drainScheduled || (interactive.isEmpty() && background.isEmpty())) {
+            return;
+        }
+        double needed = (interactive.isEmpty() ? 1 + interactiveReserve() : 1) - tokens;
+        long delay = Math.max(pausedUntil - now, (long) Math.ceil(Math.max(0, needed) / tokensPerNano));
+        drainScheduled = true;
+        scheduler.schedule(() -> {
+            synchronized (this) {
+                drainScheduled = false;
+            }
+            drain();
+        }, Math.max(delay, TimeUnit.MILLISECONDS.toNanos(10)), TimeUnit.NANOSECONDS);
+        if (delay > TimeUnit.SECONDS.toNanos(1)) {
+            LOGGER.info("Rate limited, " + getQueuedCount() + " requests waiting "
+                + TimeUnit.NANOSECONDS.toSeconds(delay) + "s");
+        }
+    }
+
+    private double interactiveReserve() {
+        return Math.max(1, Math.floor(capacity * 0.1));
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+
+    private void setLimit(int limit) {
+        capacity = limit;
+        tokensPerNano = limit / (double) windowNanos;
+    }
+
+    // Brings the local bucket in line with what the server says is left
+    private void onResponse(int status, HttpHeaders headers) {
+        OptionalLong limit = headers.firstValueAsLong("X-RateLimit-Limit");
+        OptionalLong remaining = headers.firstValueAsLong("X-RateLimit-Remaining");
+        boolean failed = status == 429 || status == 503;
+        synchronized (this) {
+            long now = System.nanoTime();
+            refill(now);
+            if (limit.isPresent() && limit.getAsLong() > 0 && limit.getAsLong() != (long) capacity) {
+                LOGGER.info("Server reports a limit of " + limit.getAsLong() + " requests");
+                setLimit((int) Math.min(Integer.MAX_VALUE, limit.getAsLong()));
+            }
+            if (remaining.isPresent()) {
+                tokens = Math.min(tokens, remaining.getAsLong());
+            }
+            if (failed) {
+                if (status == 429) {
+                    tokens = 0;
+                }
+                consecutiveFailures++;
+                long backoff = retryAfter(headers).orElseGet(this::jitteredBackoff);
+                if (now + backoff - pausedUntil > 0) {
+                    pausedUntil = now + backoff;
+                }
+                LOGGER.warning("HTTP " + status + " from rate limited host, pausing requests for "
+                    + TimeUnit.NANOSECONDS.toMillis(backoff) + "ms");
+            } else {
+                consecutiveFailures = 0;
+            }
+        }
+        drain();
+    }
+
+    private long jitteredBackoff() {
+        long ceiling = Math.min(MAX_BACKOFF_NANOS, BASE_BACKOFF_NANOS << Math.min(consecutiveFailures - 1, 16));
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+
+    private static Optional<Long> retryAfter(HttpHeaders headers) {
+        return headers.firstValue("Retry-After").flatMap(value -> {
+            try {
+                return Optional.of(TimeUnit.SECONDS.toNanos(Long.parseLong(value.trim())));
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        });
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private final class Pending<T> {
+        private final Supplier<CompletableFuture<HttpResponse<T>>> exchange;
+        private final CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+
+        Pending(Supplier<CompletableFuture<HttpResponse<T>>> exchange) {
+            this.exchange = exchange;
+        }
+
+        void start() {
+            CompletableFuture<HttpResponse<T>> sent;
+            try {
+                sent = exchange.get();
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            sent.whenComplete((response, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                    return;
+                }
+                onResponse(response.statusCode(), response.headers());
+                result.complete(response);
+            });
+            // A caller giving up on a request that is already on the wire aborts it
+            result.whenComplete((response, error) -> {
+                if (result.isCancelled()) {
+                    sent.cancel(true);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.nasa.controller;
+
+import com.nasa.model.ResponseCache;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+// Single-flight layer in front of the shared transport: concurrent callers asking for the
+// same normalized URL share one in-flight exchange instead of each sending their own
+public class RequestCoalescer {
+    private static final Logger LOGGER = Logger.getLogger(RequestCoalescer.class.getName());
+
+    private final NasaTransport transport;
+    private final ConcurrentHashMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder aborted = new LongAdder();
+
+    public RequestCoalescer(NasaTransport transport) {
+        this.transport = transport;
+    }
+
+    // Each caller gets its own copy of the shared future, so cancelling one caller
+    // never cancels the exchange the other callers are still waiting on. Once every
+    // caller has cancelled, the exchange itself is aborted.
+    public CompletableFuture<HttpResponse<String>> send(HttpRequest request) {
+        return send(request, RateLimiter.Priority.INTERACTIVE);
+    }
+
+    // An interactive caller joining a background exchange that is still queued in the rate
+    // limiter moves it to the interactive queue, so it does not wait behind the reserve
+    public CompletableFuture<HttpResponse<String>> send(HttpRequest request, RateLimiter.Priority priority) {
+        String key = request.method() + " " + ResponseCache.keyFor(request.uri().toString());
+        boolean[] created = new boolean[1];
+        // compute() runs atomically per key, so joining and abandoning a flight never race
+        Flight flight = inFlight.compute(key, (k, existing) -> {
+            if (existing == null) {
+                created[0] = true;
+                existing = new Flight(priority);
+            } else if (priority == RateLimiter.Priority.INTERACTIVE) {
+                existing.priority = priority;
+            }
+            existing.waiters++;
+            return existing;
+        });
+
+        if (created[0]) {
+            sent.increment();
+            CompletableFuture<HttpResponse<String>> exchange = transport.sendString(request, priority);
+            flight.exchange = exchange;
+            exchange.whenComplete((response, error) -> {
+                inFlight.remove(key, flight);
+                if (error != null) {
+                    flight.shared.completeExceptionally(error);
+                } else {
+                    flight.shared.complete(response);
+                }
+            });
+            if (flight.shared.isCancelled()) {
+                // Every caller gave up before the exchange was even handed over
+                exchange.cancel(true);
+            } else if (flight.priority != priority) {
+                // An interactive caller joined before the exchange was handed over
+                transport.promote(exchange);
+            }
+        } else {
+            coalesced.increment();
+            LOGGER.fine("Joined in-flight request for " + key);
+            CompletableFuture<HttpResponse<String>> exchange = flight.exchange;
+            if (priority == RateLimiter.Priority.INTERACTIVE && exchange != null && transport.promote(exchange)) {
+                LOGGER.fine("Promoted queued background request for " + key);
+            }
+        }
+
+        CompletableFuture<HttpResponse<String>> copy = flight.shared.copy();
+        copy.whenComplete((response, error) -> {
+            if (copy.isCancelled()) {
+                release(key, flight);
+            }
+        });
+        return copy;
+    }
+
+    private void release(String key, Flight flight) {
+        boolean[] abandoned = new boolean[1];
+        inFlight.computeIfPresent(key, (k, current) -> {
+            if (current != flight || --current.waiters > 0) {
+                return current;
+            }
+            abandoned[0] = true;
+            return null;
+        });
+        if (abandoned[0] && flight.shared.cancel(false)) {
+            aborted.increment();
+            LOGGER.fine("Aborted abandoned request for " + key);
+            CompletableFuture<HttpResponse<String>> exchange = flight.exchange;
+            if (exchange != null) {
+                exchange.cancel(true);
+            }
+        }
+    }
+
+    public long getSentCount() {
+        return sent.sum();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public long getAbortedCount() {
+        return aborted.sum();
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private static final class Flight {
+        final CompletableFuture<HttpResponse<String>> shared = new CompletableFuture<>();
+        volatile CompletableFuture<HttpResponse<String>> exchange;
+        // Raised to INTERACTIVE by the first interactive caller; written under the map's compute
+        volatile RateLimiter.Priority priority;
+        // Guarded by the map's per-key compute
+        int waiters;
+
+        Flight(RateLimiter.Priority priority) {
+            this.priority = priority;
+        }
+    }
+}
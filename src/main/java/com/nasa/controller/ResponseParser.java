@@ -0,0 +1,263 @@
+package com.nasa.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.nasa.model.Apod;
+import com.nasa.model.EpicCollection;
+import com.nasa.model.EpicImage;
+import com.nasa.model.LibraryItem;
+import com.nasa.model.LibraryPage;
+import com.nasa.model.RoverPhoto;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+// Turns API response bodies into model records. Pure functions of the body, no UI and no
+// network, so they can run on any thread and be benchmarked on their own.
+// Bodies are bound straight onto the ApiTypes records through readers built once here;
+// ObjectReader is immutable, so sharing them across threads is safe.
+public class ResponseParser {
+    private final ObjectMapper objectMapper;
+    private final ObjectReader apodReader;
+    private final ObjectReader apodListReader;
+    private final ObjectReader roverPhotosReader;
+    private final ObjectReader epicListReader;
+    private final ObjectReader libraryReader;
+
+    public ResponseParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.apodReader = reader(objectMapper.readerFor(ApiTypes.ApodEntry.class));
+        this.apodListReader = reader(objectMapper.readerFor(new TypeReference<List<ApiTypes.ApodEntry>>() { }));
+        this.roverPhotosReader = reader(objectMapper.readerFor(ApiTypes.RoverPhotoPage.class));
+        this.epicListReader = reader(objectMapper.readerFor(new TypeReference<List<ApiTypes.EpicEntry>>() { }));
+        this.libraryReader = reader(objectMapper.readerFor(ApiTypes.LibrarySearch.class));
+    }
+
+    // Blackbird replaces reflective setter and field access with generated lambdas. The
+    // ApiTypes records bind through their constructors, which it leaves alone, so it
+    // measures as a wash on the JMH fixtures and stays opt-in.
+    public static ObjectMapper createObjectMapper(boolean blackbird) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        if (blackbird) {
+            objectMapper.registerModule(new BlackbirdModule());
+        }
+        return objectMapper;
+    }
+
+    private static ObjectReader reader(ObjectReader reader) {
+        return reader.without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    public Apod parseApod(String response) throws IOException {
+        ApiTypes.ApodEntry entry = apodReader.readValue(response);
+        checkError(entry.error(), entry.url() == null ? entry.msg() : null);
+        return toApod(entry);
+    }
+
+    // The start_date/end_date form of the APOD API answers with an array, or an object on error
+    public List<Apod> parseApodList(String response) throws IOException {
+        try (JsonParser parser = open(response)) {
+            expectApodList(parser);
+            List<ApiTypes.ApodEntry> entries = apodListReader.readValue(parser);
+            List<Apod> result = new ArrayList<>(entries.size());
+            for (ApiTypes.ApodEntry entry : entries) {
+                result.add(toApod(entry));
+            }
+            return result;
+        }
+    }
+
+    // An APOD entry together with its own JSON, as the single-date API would have served it
+    public record ApodBody(Apod apod, String json) {
+    }
+
+    // Like parseApodList, but also cuts each entry's JSON out of the batch so it can be
+    // cached under that day's URL
+    public List<ApodBody> parseApodBatch(String response) throws IOException {
+        try (JsonParser parser = open(response)) {
+            expectApodList(parser);
+            List<ApodBody> result = new ArrayList<>();
+            StringWriter text = new StringWriter(2048);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                text.getBuffer().setLength(0);
+                try (JsonGenerator generator = objectMapper.getFactory().createGenerator(text)) {
+                    generator.copyCurrentStructure(parser);
+                }
+                String json = text.toString();
+                result.add(new ApodBody(toApod(apodReader.readValue(json)), json));
+            }
+            return result;
+        }
+    }
+
+    private void expectApodList(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            if (parser.currentToken() == JsonToken.START_OBJECT) {
+                ApiTypes.ApodEntry error = apodReader.readValue(parser);
+                checkError(error.error(), error.msg());
+            }
+            throw new IOException("Expected a list of APOD entries");
+        }
+    }
+
+    private static Apod toApod(ApiTypes.ApodEntry entry) throws IOException {
+        if (entry.url() == null) {
+            throw new IOException("No media URL found in the response");
+        }
+        return new Apod(
+            Optional.ofNullable(entry.date()),
+            orDefault(entry.title(), "No title available"),
+            orDefault(entry.explanation(), "No explanation available"),
+            orDefault(entry.mediaType(), "image"),
+            entry.url(),
+            Optional.ofNullable(entry.hdurl()),
+            Optional.ofNullable(entry.copyright())
+        );
+    }
+
+    public List<RoverPhoto> parseRoverPhotos(String response) throws IOException {
+        ApiTypes.RoverPhotoPage page = roverPhotosReader.readValue(response);
+        checkError(page.error(), null);
+        if (page.errors() != null) {
+            throw new IOException("API Error: " + page.errors().asText());
+        }
+        if (page.photos() == null) {
+            throw new IOException("No photos found in the response");
+        }
+
+        List<RoverPhoto> result = new ArrayList<>(page.photos().size());
+        for (ApiTypes.RoverPhotoEntry photo : page.photos()) {
+            String imageUrl = photo.imgSrc();
+            if (imageUrl == null) {
+                continue;
+            }
+            // Ensure HTTPS usage
+            if (imageUrl.startsWith("http://")) {
+                imageUrl = "https://" + imageUrl.substring(7);
+            }
+            ApiTypes.Named camera = photo.camera();
+            result.add(new RoverPhoto(
+                photo.id(),
+                photo.sol(),
+                camera != null ? orDefault(camera.name(), "?") : "?",
+                camera != null ? orDefault(camera.fullName(), "") : "",
+                encodeUrl(imageUrl),
+                orDefault(photo.earthDate(), ""),
+                photo.rover() != null ? orDefault(photo.rover().name(), "Unknown") : "Unknown"
+            ));
+        }
+        return result;
+    }
+
+    public List<EpicImage> parseEpicImages(String response, EpicCollection collection) throws IOException {
+        List<ApiTypes.EpicEntry> entries;
+        try (JsonParser parser = open(response)) {
+            if (parser.currentToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a list of EPIC images");
+            }
+            entries = epicListReader.readValue(parser);
+        }
+        List<EpicImage> result = new ArrayList<>(entries.size());
+        for (ApiTypes.EpicEntry entry : entries) {
+            if (entry.image() == null || entry.date() == null) {
+                continue;
+            }
+            int space = entry.date().indexOf(' ');
+            LocalDate day = LocalDate.parse(space < 0 ? entry.date() : entry.date().substring(0, space));
+            result.add(new EpicImage(
+                orDefault(entry.identifier(), ""),
+                entry.image(),
+                orDefault(entry.caption(), ""),
+                entry.date(),
+                NasaService.epicImageUrl(collection, day, entry.image()),
+                NasaService.epicJpegUrl(collection, day, entry.image())
+            ));
+        }
+        return result;
+    }
+
+    public List<LibraryItem> parseLibrary(String response) throws IOException {
+        return parseLibraryPage(response, 1).items();
+    }
+
+    // The collection links carry a rel=next entry until the last page the API will serve
+    public LibraryPage parseLibraryPage(String response, int page) throws IOException {
+        ApiTypes.LibrarySearch search = libraryReader.readValue(response);
+        ApiTypes.LibraryCollection collection = search.collection();
+        if (collection == null || collection.items() == null) {
+            throw new IOException("No collection found in the response");
+        }
+        List<ApiTypes.LibraryEntry> items = collection.items();
+        List<LibraryItem> result = new ArrayList<>(items.size());
+        for (ApiTypes.LibraryEntry item : items) {
+            ApiTypes.LibraryData data = item.data() != null && !item.data().isEmpty()
+                ? item.data().get(0)
+                : new ApiTypes.LibraryData(null, null, null, null, null);
+            Optional<String> previewUrl = item.links() != null && !item.links().isEmpty()
+                ? Optional.ofNullable(item.links().get(0).href()).map(ResponseParser::encodeUrl)
+                : Optional.empty();
+            result.add(new LibraryItem(
+                orDefault(data.nasaId(), ""),
+                orDefault(data.title(), "Untitled"),
+                orDefault(data.description(), ""),
+                orDefault(data.mediaType(), "image"),
+                orDefault(data.dateCreated(), ""),
+                previewUrl,
+                Optional.ofNullable(item.href())
+            ));
+        }
+        boolean hasNext = collection.links() != null
+            && collection.links().stream().anyMatch(link -> "next".equals(link.rel()));
+        long totalHits = collection.metadata() != null ? collection.metadata().totalHits() : result.size();
+        return new LibraryPage(result, page, totalHits, hasNext);
+    }
+
+    // Positioned on the first token; an empty body is an error rather than a null result
+    private JsonParser open(String response) throws IOException {
+        JsonParser parser = objectMapper.getFactory().createParser(response);
+        if (parser.nextToken() == null) {
+            parser.close();
+            throw new IOException("Empty response");
+        }
+        return parser;
+    }
+
+    private static void checkError(JsonNode error, String message) throws IOException {
+        if (error != null) {
+            throw new IOException("API Error: " + (error.isObject() ? error.path("message").asText() : error.asText()));
+        }
+        if (message != null) {
+            throw new IOException("API Error: " + message);
+        }
+    }
+
+    private static String orDefault(String value, String fallback) {
+        return value != null ? value : fallback;
+    }
+
+    public static String encodeUrl(String url) {
+        try {
+            // Split the URL into parts to encode each part separately
+            String[] parts = url.split("/");
+            for (int i = 3; i < parts.length; i++) { // Start from index 3 to skip protocol and domain
+                parts[i] = URLEncoder.encode(parts[i], StandardCharsets.UTF_8.toString())
+                    .replace("+", "%20"); // Replace + with %20 for spaces
+            }
+            return String.join("/", parts);
+        } catch (Exception e) {
+            return url; // Return original URL if encoding fails
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.nasa.metrics;
+
+import java.util.function.Supplier;
+
+// Reads a cache's own counters on demand, for the dump and for JMX. The cache keeps
+// counting itself; this only asks it when someone looks.
+public final class CacheGauge implements CacheStatsMXBean {
+    public record Reading(long hits, long misses, String summary) {
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+
+    private final String name;
+    private final Supplier<Reading> source;
+
+    CacheGauge(String name, Supplier<Reading> source) {
+        this.name = name;
+        this.source = source;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Reading read() {
+        return source.get();
+    }
+
+    @Override
+    public long getHits() {
+        return read().hits();
+    }
+
+    @Override
+    public long getMisses() {
+        return read().misses();
+    }
+
+    @Override
+    public double getHitRate() {
+        return read().hitRate();
+    }
+
+    @Override
+    public String getSummary() {
+        return read().summary();
+    }
+}
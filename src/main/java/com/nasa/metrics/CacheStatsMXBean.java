@@ -0,0 +1,13 @@
+package com.nasa.metrics;
+
+// One cache as seen over JMX, under com.nasa:type=Cache,name=<cache>. The hit rate is
+// hits / (hits + misses), 0 before the first lookup.
+public interface CacheStatsMXBean {
+    long getHits();
+
+    long getMisses();
+
+    double getHitRate();
+
+    String getSummary();
+}
@@ -0,0 +1,46 @@
+package com.nasa.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// One HTTP exchange, from the moment it was queued until its body was fully read (or it
+// failed). Record with -XX:StartFlightRecording and look under "NASA Explorer" in JMC.
+@Name("com.nasa.Fetch")
+@Label("NASA Fetch")
+@Category("NASA Explorer")
+@Description("An HTTP request through NasaTransport")
+@StackTrace(false)
+public class FetchEvent extends Event {
+    @Label("URL")
+    public String url;
+
+    @Label("Host")
+    public String host;
+
+    @Label("Priority")
+    public String priority;
+
+    @Label("Status")
+    public int status;
+
+    @Label("Queue Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    public long queueWait;
+
+    @Label("Time to Headers")
+    @Timespan(Timespan.NANOSECONDS)
+    public long timeToHeaders;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Error")
+    public String error;
+}
@@ -0,0 +1,207 @@
+package com.nasa.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Log-linear histogram in the style of HdrHistogram: every power of two is split into
+// 32 linear sub-buckets, so any recorded value is reported within about 3% across the
+// whole long range, in a fixed 15 KB of counters. Recording is a handful of
+// arithmetic ops and one atomic increment, with no locks and no allocation, so it is safe
+// to call from the EDT and from every pool thread at once. Reads scan a moment-in-time
+// copy of the counters and can be slightly behind concurrent writers.
+public final class Histogram implements HistogramMXBean {
+    public enum Unit {
+        NANOSECONDS,
+        BYTES
+    }
+
+    // Values below 2^PRECISION_BITS get a bucket each; above that each power of two gets
+    // 2^(PRECISION_BITS - 1) buckets
+    private static final int PRECISION_BITS = 6;
+    private static final int LINEAR = 1 << PRECISION_BITS;
+    private static final int HALF = LINEAR >> 1;
+    private static final int BUCKETS = LINEAR + (63 - PRECISION_BITS) * HALF;
+
+    private final String name;
+    private final Unit unit;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public Histogram(String name, Unit unit) {
+        this.name = name;
+        this.unit = unit;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Unit getUnit() {
+        return unit;
+    }
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(index(value));
+        total.add(value);
+        long seen = max.get();
+        while (value > seen && !max.compareAndSet(seen, value)) {
+            seen = max.get();
+        }
+    }
+
+    // Elapsed time since a System.nanoTime() reading
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    static int index(long value) {
+        if (value < LINEAR) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int mantissa = (int) (value >>> (exponent - PRECISION_BITS + 1));
+        return LINEAR + (exponent - PRECISION_BITS) * HALF + (mantissa - HALF);
+    }
+
+    // Middle of the range of values that share the bucket
+    static long value(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+        int exponent = (index - LINEAR) / HALF + PRECISION_BITS;
+        long mantissa = (index - LINEAR) % HALF + HALF;
+        int shift = exponent - PRECISION_BITS + 1;
+        return (mantissa << shift) + ((1L << shift) >> 1);
+    }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new Snapshot(copy, count, total.sum(), max.get());
+    }
+
+    public final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long total;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long total, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.total = total;
+            this.max = max;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public long total() {
+            return total;
+        }
+
+        public long max() {
+            return max;
+        }
+
+        public double mean() {
+            return count == 0 ? 0 : (double) total / count;
+        }
+
+        // 0 for an empty histogram; never above the largest value actually recorded
+        public long percentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(value(i), max);
+                }
+            }
+            return max;
+        }
+
+        public String format(long value) {
+            return unit == Unit.NANOSECONDS ? formatNanos(value) : formatBytes(value);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-14s n=%-7d p50=%-9s p90=%-9s p99=%-9s max=%s", name, count,
+                format(percentile(50)), format(percentile(90)), format(percentile(99)), format(max));
+        }
+    }
+
+    // HistogramMXBean, in milliseconds or bytes
+
+    @Override
+    public long getCount() {
+        return snapshot().count();
+    }
+
+    @Override
+    public double getMean() {
+        return scaled(snapshot().mean());
+    }
+
+    @Override
+    public double getP50() {
+        return scaled(snapshot().percentile(50));
+    }
+
+    @Override
+    public double getP90() {
+        return scaled(snapshot().percentile(90));
+    }
+
+    @Override
+    public double getP99() {
+        return scaled(snapshot().percentile(99));
+    }
+
+    @Override
+    public double getMax() {
+        return scaled(max.get());
+    }
+
+    @Override
+    public String getUnitName() {
+        return unit == Unit.NANOSECONDS ? "ms" : "bytes";
+    }
+
+    private double scaled(double value) {
+        return unit == Unit.NANOSECONDS ? value / TimeUnit.MILLISECONDS.toNanos(1) : value;
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos < TimeUnit.MILLISECONDS.toNanos(1)) {
+            return String.format("%.0fus", nanos / 1e3);
+        } else if (nanos < TimeUnit.SECONDS.toNanos(1)) {
+            return String.format("%.1fms", nanos / 1e6);
+        }
+        return String.format("%.2fs", nanos / 1e9);
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + "B";
+        } else if (bytes < 1024 * 1024) {
+            return String.format("%.1fKB", bytes / 1024.0);
+        }
+        return String.format("%.1fMB", bytes / (1024.0 * 1024));
+    }
+}
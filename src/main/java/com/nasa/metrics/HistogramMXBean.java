@@ -0,0 +1,19 @@
+package com.nasa.metrics;
+
+// One pipeline stage as seen over JMX (jconsole, VisualVM, JMC), under
+// com.nasa:type=Metrics,name=<stage>. Times are in milliseconds.
+public interface HistogramMXBean {
+    long getCount();
+
+    double getMean();
+
+    double getP50();
+
+    double getP90();
+
+    double getP99();
+
+    double getMax();
+
+    String getUnitName();
+}
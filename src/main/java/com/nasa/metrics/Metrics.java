@@ -0,0 +1,158 @@
+package com.nasa.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Where the time goes between a click and pixels on screen, one histogram per stage:
+//   queue-wait     waiting in the rate limiter for a token
+//   http           request sent to response headers (includes DNS, connect and TLS)
+//   body           response headers to last byte
+//   response-bytes bytes on the wire per response (compressed when gzip)
+//   parse          JSON to model objects
+//   decode         image bytes to a display-sized BufferedImage
+//   layout, paint  Swing validation and painting on the EDT
+//   edt-dispatch   each event on the EDT, see EdtWatchdog
+// Every request is also marked with a FetchEvent for JFR recordings. Caches register a
+// CacheGauge with their own hit and miss counts, dumped and exposed alongside the stages.
+public final class Metrics {
+    private static final Logger LOGGER = Logger.getLogger(Metrics.class.getName());
+    // Seconds between dumps to the log; 0 turns the dump off
+    private static final long DUMP_SECONDS = Long.getLong("nasa.metrics.dump.seconds", 300);
+
+    private static final Map<String, Histogram> HISTOGRAMS = Collections.synchronizedMap(new LinkedHashMap<>());
+    private static final Map<String, CacheGauge> CACHES = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    public static final Histogram QUEUE_WAIT = register("queue-wait", Histogram.Unit.NANOSECONDS);
+    public static final Histogram HTTP = register("http", Histogram.Unit.NANOSECONDS);
+    public static final Histogram BODY = register("body", Histogram.Unit.NANOSECONDS);
+    public static final Histogram RESPONSE_BYTES = register("response-bytes", Histogram.Unit.BYTES);
+    public static final Histogram PARSE = register("parse", Histogram.Unit.NANOSECONDS);
+    public static final Histogram DECODE = register("decode", Histogram.Unit.NANOSECONDS);
+    public static final Histogram LAYOUT = register("layout", Histogram.Unit.NANOSECONDS);
+    public static final Histogram PAINT = register("paint", Histogram.Unit.NANOSECONDS);
+    public static final Histogram DISPATCH = register("edt-dispatch", Histogram.Unit.NANOSECONDS);
+
+    private static ScheduledExecutorService dumper;
+    // Dumper thread only
+    private static long lastDumpedCount = -1;
+
+    private Metrics() {
+    }
+
+    private static Histogram register(String name, Histogram.Unit unit) {
+        Histogram histogram = new Histogram(name, unit);
+        HISTOGRAMS.put(name, histogram);
+        return histogram;
+    }
+
+    public static List<Histogram> all() {
+        synchronized (HISTOGRAMS) {
+            return new ArrayList<>(HISTOGRAMS.values());
+        }
+    }
+
+    // A later registration under the same name replaces the earlier one, so a rebuilt
+    // view or controller reports its own cache
+    public static synchronized void registerCache(String name, Supplier<CacheGauge.Reading> source) {
+        CacheGauge gauge = new CacheGauge(name, source);
+        CACHES.put(name, gauge);
+        if (dumper != null) {
+            registerMBean(gauge, "com.nasa:type=Cache,name=" + name);
+        }
+    }
+
+    public static List<CacheGauge> caches() {
+        synchronized (CACHES) {
+            return new ArrayList<>(CACHES.values());
+        }
+    }
+
+    // Registers the MBeans and starts the periodic dump; only the desktop app calls this,
+    // recording itself needs no setup
+    public static synchronized void start() {
+        if (dumper != null) {
+            return;
+        }
+        for (Histogram histogram : all()) {
+            registerMBean(histogram, "com.nasa:type=Metrics,name=" + histogram.getName());
+        }
+        for (CacheGauge gauge : caches()) {
+            registerMBean(gauge, "com.nasa:type=Cache,name=" + gauge.getName());
+        }
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "nasa-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (DUMP_SECONDS > 0) {
+            dumper.scheduleAtFixedRate(Metrics::dumpIfActive, DUMP_SECONDS, DUMP_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void registerMBean(Object bean, String objectName) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(objectName);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(bean, name);
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "Could not register metrics MBean " + objectName, e);
+        }
+    }
+
+    public static synchronized void stop() {
+        if (dumper != null) {
+            dumper.shutdownNow();
+            dumper = null;
+        }
+    }
+
+    // Skips the log line when nothing happened since the last one
+    private static void dumpIfActive() {
+        long count = 0;
+        for (Histogram histogram : all()) {
+            count += histogram.getCount();
+        }
+        for (CacheGauge gauge : caches()) {
+            CacheGauge.Reading reading = gauge.read();
+            count += reading.hits() + reading.misses();
+        }
+        if (count != lastDumpedCount) {
+            lastDumpedCount = count;
+            LOGGER.info(dump());
+        }
+    }
+
+    // Totals since startup, one line per stage and per cache that has seen any traffic
+    public static String dump() {
+        StringBuilder text = new StringBuilder("Pipeline metrics since startup:");
+        for (Histogram histogram : all()) {
+            Histogram.Snapshot snapshot = histogram.snapshot();
+            if (snapshot.count() > 0) {
+                text.append("\n  ").append(snapshot);
+            }
+        }
+        for (CacheGauge gauge : caches()) {
+            CacheGauge.Reading reading = gauge.read();
+            if (reading.hits() + reading.misses() > 0) {
+                text.append("\n  ").append(gauge.getName()).append(": ").append(reading.summary());
+            }
+        }
+        return text.toString();
+    }
+}
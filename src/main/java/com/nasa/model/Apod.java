@@ -0,0 +1,18 @@
+package com.nasa.model;
+
+import java.util.Optional;
+
+// One Astronomy Picture of the Day entry
+public record Apod(
+    Optional<String> date,
+    String title,
+    String explanation,
+    String mediaType,
+    String url,
+    Optional<String> hdUrl,
+    Optional<String> copyright
+) {
+    public boolean isVideo() {
+        return "video".equals(mediaType);
+    }
+}
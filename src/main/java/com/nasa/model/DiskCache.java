@@ -0,0 +1,261 @@
+package com.nasa.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class DiskCache {
+    private static final Logger LOGGER = Logger.getLogger(DiskCache.class.getName());
+    private static final String BODY_SUFFIX = ".bin";
+    private static final String META_SUFFIX = ".meta";
+    private static final long EVICTION_INTERVAL_MINUTES = 5;
+
+    private final Path directory;
+    private final long maxBytes;
+    private final ScheduledExecutorService evictor;
+    private final AtomicBoolean evictionPending = new AtomicBoolean();
+
+    public DiskCache(Path directory, long maxBytes) throws IOException {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(directory);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "disk-cache-evictor");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(this::evict, EVICTION_INTERVAL_MINUTES, EVICTION_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    // Platform cache directory, overridable with -Dnasa.cache.dir
+    public static Path defaultDirectory() {
+        String override = System.getProperty("nasa.cache.dir");
+        if (override != null && !override.isEmpty()) {
+            return Paths.get(override);
+        }
+        String userHome = System.getProperty("user.home");
+        String os = System.getProperty("os.name", "").toLowerCase();
+        if (os.contains("mac")) {
+            return Paths.get(userHome, "Library", "Caches", "NasaExplorer");
+        }
+        if (os.contains("win") && System.getenv("LOCALAPPDATA") != null) {
+            return Paths.get(System.getenv("LOCALAPPDATA"), "NasaExplorer", "Cache");
+        }
+        String xdgCache = System.getenv("XDG_CACHE_HOME");
+        if (xdgCache != null && !xdgCache.isEmpty()) {
+            return Paths.get(xdgCache, "NasaExplorer");
+        }
+        return Paths.get(userHome, ".cache", "NasaExplorer");
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    // A read counts as an access for eviction
+    public Optional<Entry> get(String key) {
+        return read(key, true);
+    }
+
+    // Reads the entry without counting it as an access, for callers that only want to know
+    // what is there
+    public Optional<Entry> peek(String key) {
+        return read(key, false);
+    }
+
+    private Optional<Entry> read(String key, boolean access) {
+        String name = fileName(key);
+        Path body = directory.resolve(name + BODY_SUFFIX);
+        Path meta = directory.resolve(name + META_SUFFIX);
+        if (!Files.exists(meta) || !Files.exists(body)) {
+            return Optional.empty();
+        }
+        try {
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(meta)) {
+                properties.load(in);
+            }
+            if (!key.equals(properties.getProperty("key"))) {
+                return Optional.empty();
+            }
+
+            ByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(body, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            if (access) {
+                // Body mtime doubles as the last-access time for LRU eviction
+                Files.setLastModifiedTime(body, FileTime.fromMillis(System.currentTimeMillis()));
+            }
+
+            return Optional.of(new Entry(
+                key,
+                buffer,
+                properties.getProperty("etag"),
+                properties.getProperty("lastModified"),
+                Long.parseLong(properties.getProperty("storedAt", "0"))
+            ));
+        } catch (IOException | NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "Unreadable disk cache entry for " + key, e);
+            return Optional.empty();
+        }
+    }
+
+    public void put(String key, byte[] content, String etag, String lastModified) {
+        String name = fileName(key);
+        try {
+            Path tempBody = Files.createTempFile(directory, name, ".tmp");
+            Files.write(tempBody, content);
+            Files.move(tempBody, directory.resolve(name + BODY_SUFFIX),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            writeMeta(name, key, etag, lastModified, System.currentTimeMillis());
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to write disk cache entry for " + key, e);
+            return;
+        }
+        if (evictionPending.compareAndSet(false, true)) {
+            evictor.execute(this::evict);
+        }
+    }
+
+    public void put(String key, String content, String etag, String lastModified) {
+        put(key, content.getBytes(StandardCharsets.UTF_8), etag, lastModified);
+    }
+
+    // Marks a stored entry as fresh again after a successful 304 revalidation
+    public void touch(Entry entry) {
+        try {
+            writeMeta(fileName(entry.key()), entry.key(), entry.etag(), entry.lastModified(), System.currentTimeMillis());
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to refresh disk cache entry for " + entry.key(), e);
+        }
+    }
+
+    public void remove(String key) {
+        String name = fileName(key);
+        try {
+            Files.deleteIfExists(directory.resolve(name + META_SUFFIX));
+            Files.deleteIfExists(directory.resolve(name + BODY_SUFFIX));
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to remove disk cache entry for " + key, e);
+        }
+    }
+
+    public void shutdown() {
+        evictor.shutdownNow();
+    }
+
+    private void writeMeta(String name, String key, String etag, String lastModified, long storedAt) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("key", key);
+        properties.setProperty("storedAt", Long.toString(storedAt));
+        if (etag != null) {
+            properties.setProperty("etag", etag);
+        }
+        if (lastModified != null) {
+            properties.setProperty("lastModified", lastModified);
+        }
+        Path tempMeta = Files.createTempFile(directory, name, ".tmp");
+        try (OutputStream out = Files.newOutputStream(tempMeta)) {
+            properties.store(out, null);
+        }
+        Files.move(tempMeta, directory.resolve(name + META_SUFFIX),
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void evict() {
+        evictionPending.set(false);
+        List<Path> bodies = new ArrayList<>();
+        long totalBytes = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + BODY_SUFFIX)) {
+            for (Path body : stream) {
+                bodies.add(body);
+                totalBytes += Files.size(body);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to scan disk cache", e);
+            return;
+        }
+        if (totalBytes <= maxBytes) {
+            return;
+        }
+
+        bodies.sort(Comparator.comparingLong(DiskCache::lastAccess));
+        for (Path body : bodies) {
+            if (totalBytes <= maxBytes) {
+                break;
+            }
+            try {
+                long size = Files.size(body);
+                String name = body.getFileName().toString();
+                Files.deleteIfExists(directory.resolve(name.substring(0, name.length() - BODY_SUFFIX.length()) + META_SUFFIX));
+                Files.deleteIfExists(body);
+                totalBytes -= size;
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Failed to evict " + body, e);
+            }
+        }
+        LOGGER.fine("Disk cache trimmed to " + totalBytes + " bytes");
+    }
+
+    private static long lastAccess(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static String fileName(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record Entry(String key, ByteBuffer body, String etag, String lastModified, long storedAt) {
+        public boolean isFresh(long ttlMillis) {
+            return storedAt + ttlMillis > System.currentTimeMillis();
+        }
+
+        public byte[] bytes() {
+            ByteBuffer view = body.duplicate();
+            byte[] bytes = new byte[view.remaining()];
+            view.get(bytes);
+            return bytes;
+        }
+
+        public String text() {
+            return StandardCharsets.UTF_8.decode(body.duplicate()).toString();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.nasa.model;
+
+import java.util.Locale;
+
+// The EPIC image sets: true colour, and contrast enhanced to bring out land and cloud detail.
+// Both share the same API and archive layout, only the path segment differs.
+public enum EpicCollection {
+    NATURAL,
+    ENHANCED;
+
+    public String path() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
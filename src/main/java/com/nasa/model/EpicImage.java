@@ -0,0 +1,17 @@
+package com.nasa.model;
+
+// One EPIC (DSCOVR) Earth image; date is "yyyy-MM-dd HH:mm:ss" as served by the API.
+// imageUrl is the full 2048px PNG, jpegUrl the 1024px JPEG rendition at a fraction of the size.
+public record EpicImage(
+    String identifier,
+    String image,
+    String caption,
+    String date,
+    String imageUrl,
+    String jpegUrl
+) {
+    public String day() {
+        int space = date.indexOf(' ');
+        return space < 0 ? date : date.substring(0, space);
+    }
+}
@@ -0,0 +1,19 @@
+package com.nasa.model;
+
+import java.util.Optional;
+
+// One search hit from the NASA Image and Video Library. previewUrl is the first link the
+// API returns (a thumbnail for images and videos alike).
+public record LibraryItem(
+    String nasaId,
+    String title,
+    String description,
+    String mediaType,
+    String dateCreated,
+    Optional<String> previewUrl,
+    Optional<String> assetManifestUrl
+) {
+    public boolean isVideo() {
+        return "video".equals(mediaType);
+    }
+}
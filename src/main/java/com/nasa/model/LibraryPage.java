@@ -0,0 +1,12 @@
+package com.nasa.model;
+
+import java.util.List;
+
+// One page of NASA Image and Video Library search results; totalHits counts every page
+public record LibraryPage(
+    List<LibraryItem> items,
+    int page,
+    long totalHits,
+    boolean hasNext
+) {
+}
@@ -1,20 +1,72 @@
 package com.nasa.model;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class NasaModel {
-    private Map<String, String> cache;
+    private static final Logger LOGGER = Logger.getLogger(NasaModel.class.getName());
+    private static final int MAX_CACHE_ENTRIES = 256;
+    private static final long MAX_CACHE_BYTES = 32L * 1024 * 1024;
+    private static final long MAX_DISK_CACHE_BYTES = 512L * 1024 * 1024;
+
+    private final ResponseCache cache;
+    private final DiskCache diskCache;
+    private final TextIndex textIndex;
     private String currentEndpoint;
     private String lastSearchQuery;
     private String lastResponse;
+    private volatile NeoStore neoStore = new NeoStore();
 
     public NasaModel() {
-        this.cache = new HashMap<>();
+        this(true);
+    }
+
+    // Bulk jobs run without the disk tier so they do not evict what the GUI has cached
+    public NasaModel(boolean persistentCache) {
+        this.cache = new ResponseCache(MAX_CACHE_ENTRIES, MAX_CACHE_BYTES);
+        this.diskCache = persistentCache ? openDiskCache() : null;
+        this.textIndex = persistentCache ? openTextIndex() : null;
+    }
+
+    private static DiskCache openDiskCache() {
+        try {
+            DiskCache diskCache = new DiskCache(DiskCache.defaultDirectory(), MAX_DISK_CACHE_BYTES);
+            LOGGER.info("Disk cache directory: " + diskCache.getDirectory());
+            return diskCache;
+        } catch (IOException e) {
+            // The app still works without the disk tier, it just starts cold every time
+            LOGGER.log(Level.WARNING, "Disk cache unavailable", e);
+            return null;
+        }
+    }
+
+    private static TextIndex openTextIndex() {
+        try {
+            TextIndex textIndex = new TextIndex(DiskCache.defaultDirectory().resolve("text-index"));
+            // The window exits the JVM directly, so the unflushed tail is written from a hook
+            Runtime.getRuntime().addShutdownHook(new Thread(textIndex::shutdown, "text-index-flush"));
+            return textIndex;
+        } catch (IOException e) {
+            // Offline search is simply unavailable then
+            LOGGER.log(Level.WARNING, "Text index unavailable", e);
+            return null;
+        }
+    }
+
+    // May be null when the cache directory could not be created
+    public DiskCache getDiskCache() {
+        return diskCache;
     }
 
-    public void cacheResponse(String endpoint, String response) {
-        cache.put(endpoint, response);
+    // May be null for bulk jobs or when the index directory could not be created
+    public TextIndex getTextIndex() {
+        return textIndex;
+    }
+
+    public void cacheResponse(String endpoint, String response, Duration ttl) {
+        cache.put(endpoint, response, ttl);
     }
 
     public String getCachedResponse(String endpoint) {
@@ -22,13 +74,26 @@ public class NasaModel {
     }
 
     public boolean hasCache(String endpoint) {
-        return cache.containsKey(endpoint);
+        return cache.contains(endpoint);
     }
 
     public void clearCache() {
         cache.clear();
     }
 
+    public ResponseCache.Stats getCacheStats() {
+        return cache.stats();
+    }
+
+    // Replaced wholesale when a NEO fetch completes, never mutated after publishing
+    public void setNeoStore(NeoStore neoStore) {
+        this.neoStore = neoStore;
+    }
+
+    public NeoStore getNeoStore() {
+        return neoStore;
+    }
+
     public void setCurrentEndpoint(String endpoint) {
         this.currentEndpoint = endpoint;
     }
@@ -52,4 +117,4 @@ public class NasaModel {
     public String getLastResponse() {
         return lastResponse;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,16 @@
+package com.nasa.model;
+
+// One near earth object close approach from the NEO feed; numeric fields are NaN when absent
+public record NeoApproach(
+    String id,
+    String name,
+    String approachDate,
+    long epochMillis,
+    double diameterMinMeters,
+    double diameterMaxMeters,
+    double missDistanceKm,
+    double missDistanceLunar,
+    double velocityKmPerSec,
+    boolean hazardous
+) {
+}
@@ -0,0 +1,298 @@
+package com.nasa.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Column-oriented store for NEO close approaches. Every attribute lives in its own
+// primitive array so filters, sorts and top-K scans run without boxing or per-row objects.
+public class NeoStore {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    public enum Column {
+        DIAMETER,
+        MISS_DISTANCE_KM,
+        MISS_DISTANCE_LUNAR,
+        VELOCITY,
+        EPOCH
+    }
+
+    // Compares two row indices
+    public interface RowComparator {
+        int compare(int a, int b);
+    }
+
+    private int size;
+    private double[] diameterMeters = new double[INITIAL_CAPACITY];
+    private double[] missDistanceKm = new double[INITIAL_CAPACITY];
+    private double[] missDistanceLunar = new double[INITIAL_CAPACITY];
+    private double[] velocityKmPerSec = new double[INITIAL_CAPACITY];
+    private long[] epochMillis = new long[INITIAL_CAPACITY];
+    private int[] nameIds = new int[INITIAL_CAPACITY];
+    private int[] dateIds = new int[INITIAL_CAPACITY];
+    private final BitSet hazardous = new BitSet(INITIAL_CAPACITY);
+
+    // Interned dictionaries; the same asteroid and date strings repeat across rows
+    private final Map<String, Integer> dictionaryIds = new HashMap<>();
+    private final List<String> dictionary = new ArrayList<>();
+
+    public void add(NeoApproach neo) {
+        ensureCapacity(size + 1);
+        int row = size++;
+        diameterMeters[row] = neo.diameterMaxMeters();
+        missDistanceKm[row] = neo.missDistanceKm();
+        missDistanceLunar[row] = neo.missDistanceLunar();
+        velocityKmPerSec[row] = neo.velocityKmPerSec();
+        epochMillis[row] = neo.epochMillis();
+        nameIds[row] = intern(neo.name());
+        dateIds[row] = intern(neo.approachDate());
+        if (neo.hazardous()) {
+            hazardous.set(row);
+        }
+    }
+
+    public void addAll(List<NeoApproach> rows) {
+        ensureCapacity(size + rows.size());
+        for (NeoApproach neo : rows) {
+            add(neo);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String name(int row) {
+        return dictionary.get(nameIds[row]);
+    }
+
+    public String approachDate(int row) {
+        return dictionary.get(dateIds[row]);
+    }
+
+    public double diameterMeters(int row) {
+        return diameterMeters[row];
+    }
+
+    public double missDistanceKm(int row) {
+        return missDistanceKm[row];
+    }
+
+    public double missDistanceLunar(int row) {
+        return missDistanceLunar[row];
+    }
+
+    public double velocityKmPerSec(int row) {
+        return velocityKmPerSec[row];
+    }
+
+    public long epochMillis(int row) {
+        return epochMillis[row];
+    }
+
+    public boolean isHazardous(int row) {
+        return hazardous.get(row);
+    }
+
+    // Rows matching every constraint, in insertion order. Pass negative/positive infinity
+    // to leave a bound open; NaN values never satisfy a bound that is set.
+    public int[] filter(boolean hazardousOnly, double minDiameterMeters, double maxMissDistanceLunar) {
+        boolean checkDiameter = minDiameterMeters != Double.NEGATIVE_INFINITY;
+        boolean checkDistance = maxMissDistanceLunar != Double.POSITIVE_INFINITY;
+        int[] matches = new int[hazardousOnly ? hazardous.cardinality() : size];
+        int count = 0;
+        int row = hazardousOnly ? hazardous.nextSetBit(0) : 0;
+        while (row >= 0 && row < size) {
+            if ((!checkDiameter || diameterMeters[row] >= minDiameterMeters)
+                    && (!checkDistance || missDistanceLunar[row] <= maxMissDistanceLunar)) {
+                matches[count++] = row;
+            }
+            row = hazardousOnly ? hazardous.nextSetBit(row + 1) : row + 1;
+        }
+        return count == matches.length ? matches : Arrays.copyOf(matches, count);
+    }
+
+    public int[] allRows() {
+        int[] rows = new int[size];
+        for (int row = 0; row < size; row++) {
+            rows[row] = row;
+        }
+        return rows;
+    }
+
+    // Unknown values (NaN) sort last in either direction
+    public RowComparator comparator(Column column, boolean descending) {
+        switch (column) {
+            case DIAMETER:
+                return byValue(diameterMeters, descending);
+            case MISS_DISTANCE_KM:
+                return byValue(missDistanceKm, descending);
+            case MISS_DISTANCE_LUNAR:
+                return byValue(missDistanceLunar, descending);
+            case VELOCITY:
+                return byValue(velocityKmPerSec, descending);
+            case EPOCH:
+            default:
+                return descending
+                    ? (a, b) -> Long.compare(epochMillis[b], epochMillis[a])
+                    : (a, b) -> Long.compare(epochMillis[a], epochMillis[b]);
+        }
+    }
+
+    private static RowComparator byValue(double[] values, boolean descending) {
+        return (a, b) -> {
+            double x = values[a];
+            double y = values[b];
+            boolean xUnknown = Double.isNaN(x);
+            boolean yUnknown = Double.isNaN(y);
+            if (xUnknown || yUnknown) {
+                return Boolean.compare(xUnknown, yUnknown);
+            }
+            return descending ? Double.compare(y, x) : Double.compare(x, y);
+        };
+    }
+
+    // Sorts the row indices in place
+    public void sort(int[] rows, Column column, boolean descending) {
+        sort(rows, 0, rows.length - 1, comparator(column, descending));
+    }
+
+    // The k best rows by the column, best first, using a bounded heap instead of a full sort
+    public int[] topK(int[] rows, Column column, boolean descending, int k) {
+        if (k >= rows.length) {
+            int[] all = rows.clone();
+            sort(all, column, descending);
+            return all;
+        }
+        RowComparator order = comparator(column, descending);
+        // Max-heap on "order": the root is the worst of the current best k
+        int[] heap = new int[k];
+        int heapSize = 0;
+        for (int row : rows) {
+            if (heapSize < k) {
+                heap[heapSize] = row;
+                siftUp(heap, heapSize++, order);
+            } else if (order.compare(row, heap[0]) < 0) {
+                heap[0] = row;
+                siftDown(heap, heapSize, order);
+            }
+        }
+        int[] result = Arrays.copyOf(heap, heapSize);
+        sort(result, 0, result.length - 1, order);
+        return result;
+    }
+
+    private static void siftUp(int[] heap, int index, RowComparator order) {
+        int row = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (order.compare(heap[parent], row) >= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = row;
+    }
+
+    private static void siftDown(int[] heap, int heapSize, RowComparator order) {
+        int index = 0;
+        int row = heap[0];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && order.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (order.compare(row, heap[child]) >= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = row;
+    }
+
+    // Quicksort on primitive row indices with median-of-three pivots and an insertion
+    // sort for short ranges
+    private static void sort(int[] rows, int low, int high, RowComparator order) {
+        while (high - low > 16) {
+            int middle = (low + high) >>> 1;
+            if (order.compare(rows[middle], rows[low]) < 0) {
+                swap(rows, middle, low);
+            }
+            if (order.compare(rows[high], rows[low]) < 0) {
+                swap(rows, high, low);
+            }
+            if (order.compare(rows[high], rows[middle]) < 0) {
+                swap(rows, high, middle);
+            }
+            int pivot = rows[middle];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (order.compare(rows[i], pivot) < 0) {
+                    i++;
+                }
+                while (order.compare(rows[j], pivot) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(rows, i++, j--);
+                }
+            }
+            // Recurse into the smaller half to bound stack depth
+            if (j - low < high - i) {
+                sort(rows, low, j, order);
+                low = i;
+            } else {
+                sort(rows, i, high, order);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            int row = rows[i];
+            int j = i - 1;
+            while (j >= low && order.compare(rows[j], row) > 0) {
+                rows[j + 1] = rows[j];
+                j--;
+            }
+            rows[j + 1] = row;
+        }
+    }
+
+    private static void swap(int[] rows, int a, int b) {
+        int tmp = rows[a];
+        rows[a] = rows[b];
+        rows[b] = tmp;
+    }
+
+    private int intern(String value) {
+        Integer id = dictionaryIds.get(value);
+        if (id == null) {
+            id = dictionary.size();
+            dictionary.add(value);
+            dictionaryIds.put(value, id);
+        }
+        return id;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= diameterMeters.length) {
+            return;
+        }
+        int capacity = Math.max(required, diameterMeters.length + (diameterMeters.length >> 1));
+        diameterMeters = Arrays.copyOf(diameterMeters, capacity);
+        missDistanceKm = Arrays.copyOf(missDistanceKm, capacity);
+        missDistanceLunar = Arrays.copyOf(missDistanceLunar, capacity);
+        velocityKmPerSec = Arrays.copyOf(velocityKmPerSec, capacity);
+        epochMillis = Arrays.copyOf(epochMillis, capacity);
+        nameIds = Arrays.copyOf(nameIds, capacity);
+        dateIds = Arrays.copyOf(dateIds, capacity);
+    }
+}
@@ -0,0 +1,180 @@
+package com.nasa.model;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+public class ResponseCache {
+    private final int maxEntries;
+    private final long maxBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Access-ordered, so the head of the map is always the least recently used entry
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public ResponseCache(int maxEntries, long maxBytes) {
+        if (maxEntries <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache bounds must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    public String get(String key) {
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (entry.expiresAt <= now) {
+                entries.remove(key);
+                totalBytes -= entry.bytes;
+                expirations.increment();
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(String key, String value, Duration ttl) {
+        if (key == null || value == null || ttl.isZero() || ttl.isNegative()) {
+            return;
+        }
+        long bytes = sizeOf(key, value);
+        if (bytes > maxBytes) {
+            // Never let one oversized response flush the whole cache
+            return;
+        }
+        Entry entry = new Entry(value, bytes, System.currentTimeMillis() + ttl.toMillis());
+        lock.lock();
+        try {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                totalBytes -= previous.bytes;
+            }
+            totalBytes += bytes;
+            evictIfNeeded();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean contains(String key) {
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            return entry != null && entry.expiresAt > now;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(String key) {
+        lock.lock();
+        try {
+            Entry removed = entries.remove(key);
+            if (removed != null) {
+                totalBytes -= removed.bytes;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            totalBytes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        lock.lock();
+        try {
+            return new Stats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(),
+                entries.size(), totalBytes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Normalizes a request URL into a cache key: the api_key parameter is dropped
+    // and the remaining query parameters are sorted so equivalent requests collide
+    public static String keyFor(String url) {
+        URI uri = URI.create(url);
+        String query = uri.getRawQuery();
+        // The port stays in, so the same path on two servers never shares an entry
+        String base = uri.getScheme() + "://" + uri.getHost() + (uri.getPort() != -1 ? ":" + uri.getPort() : "")
+            + uri.getRawPath();
+        if (query == null || query.isEmpty()) {
+            return base;
+        }
+        String normalized = Arrays.stream(query.split("&"))
+            .filter(param -> !param.isEmpty() && !param.startsWith("api_key="))
+            .sorted()
+            .collect(Collectors.joining("&"));
+        return normalized.isEmpty() ? base : base + "?" + normalized;
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || totalBytes > maxBytes) && iterator.hasNext()) {
+            Entry eldest = iterator.next().getValue();
+            iterator.remove();
+            totalBytes -= eldest.bytes;
+            evictions.increment();
+        }
+    }
+
+    private static long sizeOf(String key, String value) {
+        // Strings are UTF-16 in the worst case, plus a rough per-entry overhead
+        return 2L * (key.length() + value.length()) + 64;
+    }
+
+    private static final class Entry {
+        final String value;
+        final long bytes;
+        final long expiresAt;
+
+        Entry(String value, long bytes, long expiresAt) {
+            this.value = value;
+            this.bytes = bytes;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public record Stats(long hits, long misses, long evictions, long expirations, int entries, long bytes) {
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d misses=%d evictions=%d expirations=%d entries=%d bytes=%d hitRate=%.1f%%",
+                hits, misses, evictions, expirations, entries, bytes, hitRate() * 100);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.nasa.model;
+
+// One photo from the Mars Rover Photos API
+public record RoverPhoto(
+    long id,
+    int sol,
+    String camera,
+    String cameraFullName,
+    String imageUrl,
+    String earthDate,
+    String roverName
+) {
+}
@@ -0,0 +1,568 @@
+package com.nasa.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Local full-text index over the text the app has fetched (APOD explanations, Image Library
+// titles and descriptions), so it can be searched offline with BM25 ranking.
+//
+// New documents collect in an in-memory buffer, which is searched directly and written out
+// as an immutable segment file once it is big enough, every minute while it is not empty,
+// and on shutdown. Each segment file holds
+//   header    magic, version, document count, term count
+//   documents key, title, source, url, token count
+//   terms     sorted; term, document frequency, postings length
+//   postings  per term, varint (doc id delta, term frequency) pairs
+// Adding a key again supersedes the older copy. Segments are merged into one once there
+// are more than MAX_SEGMENTS of them, which also drops superseded documents for good.
+public class TextIndex {
+    private static final Logger LOGGER = Logger.getLogger(TextIndex.class.getName());
+    private static final int MAGIC = 0x4e494458; // "NIDX"
+    private static final int VERSION = 1;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".idx";
+    private static final int FLUSH_DOCUMENTS = 256;
+    private static final long FLUSH_INTERVAL_SECONDS = 60;
+    private static final int MAX_SEGMENTS = 8;
+    // Standard BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final Set<String> STOP_WORDS = Set.of(
+        "the", "and", "of", "an", "in", "on", "to", "is", "it", "its", "this", "that", "for", "with",
+        "as", "by", "at", "from", "are", "was", "be", "or", "which", "these", "those", "but", "into",
+        "has", "have", "can", "than", "there", "their", "also", "about", "over", "not");
+
+    // key identifies the document across updates; text is indexed but not stored
+    public record Document(String key, String title, String source, String url, String text) {
+    }
+
+    public record Hit(String key, String title, String source, String url, double score) {
+    }
+
+    private final Path directory;
+    private final ScheduledExecutorService flusher;
+    // Guarded by this
+    private final List<Segment> segments = new ArrayList<>();
+    private final Map<String, BufferedDocument> buffer = new LinkedHashMap<>();
+    // Newest segment holding each key that is not in the buffer
+    private final Map<String, Segment> owners = new HashMap<>();
+    private long liveDocuments;
+    private long liveTokens;
+    private int nextSegment;
+
+    public TextIndex(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        loadSegments();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "text-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS,
+            TimeUnit.SECONDS);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public void add(Document document) {
+        List<String> tokens = tokenize(document.title() + " " + document.text());
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokens) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        boolean full;
+        synchronized (this) {
+            supersede(document.key());
+            buffer.put(document.key(), new BufferedDocument(document.key(), Objects.toString(document.title(), ""),
+                Objects.toString(document.source(), ""), Objects.toString(document.url(), ""), tokens.size(),
+                frequencies));
+            liveDocuments++;
+            liveTokens += tokens.size();
+            full = buffer.size() >= FLUSH_DOCUMENTS;
+        }
+        if (full) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    public void addAll(List<Document> documents) {
+        documents.forEach(this::add);
+    }
+
+    public synchronized long size() {
+        return liveDocuments;
+    }
+
+    // Best matches first; every query term contributes, documents need not contain all of them
+    public List<Hit> search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        PriorityQueue<Hit> top = new PriorityQueue<>(Comparator.comparingDouble(Hit::score));
+        synchronized (this) {
+            if (liveDocuments == 0) {
+                return List.of();
+            }
+            double averageLength = Math.max(1, (double) liveTokens / liveDocuments);
+            Map<String, Double> idf = new HashMap<>();
+            for (String term : terms) {
+                long documentFrequency = 0;
+                for (Segment segment : segments) {
+                    documentFrequency += segment.documentFrequency(term);
+                }
+                for (BufferedDocument document : buffer.values()) {
+                    documentFrequency += document.frequencies.containsKey(term) ? 1 : 0;
+                }
+                if (documentFrequency > 0) {
+                    double n = Math.max(liveDocuments, documentFrequency);
+                    idf.put(term, Math.log(1 + (n - documentFrequency + 0.5) / (documentFrequency + 0.5)));
+                }
+            }
+            if (idf.isEmpty()) {
+                return List.of();
+            }
+
+            for (Segment segment : segments) {
+                float[] scores = new float[segment.documentCount];
+                for (Map.Entry<String, Double> term : idf.entrySet()) {
+                    segment.score(term.getKey(), term.getValue(), averageLength, scores);
+                }
+                for (int doc = 0; doc < scores.length; doc++) {
+                    if (scores[doc] > 0 && !segment.superseded.get(doc)) {
+                        offer(top, limit, new Hit(segment.keys[doc], segment.titles[doc], segment.sources[doc],
+                            segment.urls[doc], scores[doc]));
+                    }
+                }
+            }
+            for (BufferedDocument document : buffer.values()) {
+                double score = 0;
+                for (Map.Entry<String, Double> term : idf.entrySet()) {
+                    Integer frequency = document.frequencies.get(term.getKey());
+                    if (frequency != null) {
+                        score += bm25(term.getValue(), frequency, document.length, averageLength);
+                    }
+                }
+                if (score > 0) {
+                    offer(top, limit, new Hit(document.key, document.title, document.source, document.url, score));
+                }
+            }
+        }
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed());
+        return hits;
+    }
+
+    private static void offer(PriorityQueue<Hit> top, int limit, Hit hit) {
+        if (top.size() < limit) {
+            top.add(hit);
+        } else if (hit.score() > top.peek().score()) {
+            top.poll();
+            top.add(hit);
+        }
+    }
+
+    private static double bm25(double idf, int frequency, int length, double averageLength) {
+        return idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+    }
+
+    // Writes the buffer out as a new segment, merging segments when there are too many
+    public void flush() throws IOException {
+        synchronized (this) {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            List<DocumentInfo> documents = new ArrayList<>(buffer.size());
+            TreeMap<String, IntList> postings = new TreeMap<>();
+            for (BufferedDocument document : buffer.values()) {
+                int id = documents.size();
+                documents.add(document.info());
+                for (Map.Entry<String, Integer> term : document.frequencies.entrySet()) {
+                    postings.computeIfAbsent(term.getKey(), k -> new IntList()).add(id, term.getValue());
+                }
+            }
+            Segment segment = writeSegment(documents, postings);
+            segments.add(segment);
+            for (String key : buffer.keySet()) {
+                owners.put(key, segment);
+            }
+            buffer.clear();
+            LOGGER.fine("Flushed " + documents.size() + " documents to " + segment.file.getFileName());
+
+            if (segments.size() > MAX_SEGMENTS) {
+                merge();
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not write text index segment", e);
+        }
+    }
+
+    public void shutdown() {
+        flusher.shutdown();
+        flushQuietly();
+    }
+
+    // Called with the lock held
+    private void supersede(String key) {
+        BufferedDocument buffered = buffer.remove(key);
+        if (buffered != null) {
+            liveDocuments--;
+            liveTokens -= buffered.length;
+            return;
+        }
+        Segment owner = owners.remove(key);
+        if (owner != null) {
+            int doc = owner.documentId(key);
+            owner.superseded.set(doc);
+            liveDocuments--;
+            liveTokens -= owner.lengths[doc];
+        }
+    }
+
+    // Rewrites every live document into one segment; called with the lock held
+    private void merge() throws IOException {
+        List<DocumentInfo> documents = new ArrayList<>();
+        TreeMap<String, IntList> postings = new TreeMap<>();
+        for (Segment segment : segments) {
+            int[] remap = new int[segment.documentCount];
+            for (int doc = 0; doc < segment.documentCount; doc++) {
+                if (segment.superseded.get(doc)) {
+                    remap[doc] = -1;
+                } else {
+                    remap[doc] = documents.size();
+                    documents.add(segment.info(doc));
+                }
+            }
+            for (int t = 0; t < segment.terms.length; t++) {
+                IntList merged = null;
+                PostingsReader reader = segment.postings(t);
+                while (reader.next()) {
+                    int target = remap[reader.doc];
+                    if (target >= 0) {
+                        if (merged == null) {
+                            merged = postings.computeIfAbsent(segment.terms[t], k -> new IntList());
+                        }
+                        merged.add(target, reader.frequency);
+                    }
+                }
+            }
+        }
+        Segment merged = writeSegment(documents, postings);
+        List<Segment> replaced = new ArrayList<>(segments);
+        segments.clear();
+        segments.add(merged);
+        for (DocumentInfo document : documents) {
+            owners.put(document.key, merged);
+        }
+        for (Segment segment : replaced) {
+            Files.deleteIfExists(segment.file);
+        }
+        LOGGER.info("Merged " + replaced.size() + " text index segments into " + merged.file.getFileName()
+            + " (" + documents.size() + " documents)");
+    }
+
+    private Segment writeSegment(List<DocumentInfo> documents, TreeMap<String, IntList> postings) throws IOException {
+        Path file = directory.resolve(SEGMENT_PREFIX + String.format("%08d", nextSegment++) + SEGMENT_SUFFIX);
+        Path temp = Files.createTempFile(directory, SEGMENT_PREFIX, ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(documents.size());
+            out.writeInt(postings.size());
+            for (DocumentInfo document : documents) {
+                out.writeUTF(document.key);
+                out.writeUTF(truncate(document.title));
+                out.writeUTF(document.source);
+                out.writeUTF(document.url);
+                out.writeInt(document.length);
+            }
+            VarIntBuffer encoded = new VarIntBuffer();
+            List<int[]> ranges = new ArrayList<>(postings.size());
+            for (IntList list : postings.values()) {
+                int start = encoded.size();
+                int previous = 0;
+                for (int i = 0; i < list.size; i += 2) {
+                    encoded.write(list.values[i] - previous);
+                    encoded.write(list.values[i + 1]);
+                    previous = list.values[i];
+                }
+                ranges.add(new int[]{start, encoded.size() - start, list.size / 2});
+            }
+            int t = 0;
+            for (String term : postings.keySet()) {
+                int[] range = ranges.get(t++);
+                out.writeUTF(term);
+                out.writeInt(range[2]);
+                out.writeInt(range[1]);
+            }
+            out.writeInt(encoded.size());
+            encoded.writeTo(out);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return readSegment(file);
+    }
+
+    private void loadSegments() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        files.sort(Comparator.comparing(path -> path.getFileName().toString()));
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            try {
+                int number = Integer.parseInt(name.substring(SEGMENT_PREFIX.length(),
+                    name.length() - SEGMENT_SUFFIX.length()));
+                nextSegment = Math.max(nextSegment, number + 1);
+                Segment segment = readSegment(file);
+                segments.add(segment);
+                for (int doc = 0; doc < segment.documentCount; doc++) {
+                    supersede(segment.keys[doc]);
+                    owners.put(segment.keys[doc], segment);
+                    liveDocuments++;
+                    liveTokens += segment.lengths[doc];
+                }
+            } catch (IOException | RuntimeException e) {
+                // A torn or foreign file only loses what it held
+                LOGGER.log(Level.WARNING, "Skipping unreadable text index segment " + file, e);
+            }
+        }
+        LOGGER.info("Text index: " + liveDocuments + " documents in " + segments.size() + " segments");
+    }
+
+    private static Segment readSegment(Path file) throws IOException {
+        try (InputStream stream = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a text index segment");
+            }
+            int documentCount = in.readInt();
+            int termCount = in.readInt();
+            Segment segment = new Segment(file, documentCount, termCount);
+            for (int doc = 0; doc < documentCount; doc++) {
+                segment.keys[doc] = in.readUTF();
+                segment.titles[doc] = in.readUTF();
+                segment.sources[doc] = in.readUTF();
+                segment.urls[doc] = in.readUTF();
+                segment.lengths[doc] = in.readInt();
+                segment.documentIds.put(segment.keys[doc], doc);
+            }
+            int offset = 0;
+            for (int t = 0; t < termCount; t++) {
+                segment.terms[t] = in.readUTF();
+                segment.documentFrequencies[t] = in.readInt();
+                segment.postingOffsets[t] = offset;
+                offset += in.readInt();
+            }
+            segment.postingOffsets[termCount] = offset;
+            segment.postings = new byte[in.readInt()];
+            in.readFully(segment.postings);
+            return segment;
+        }
+    }
+
+    // Lowercased runs of letters and digits, without stop words and single characters
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (token.length() > 0) {
+                String word = token.toString();
+                if (word.length() > 1 && !STOP_WORDS.contains(word)) {
+                    tokens.add(word);
+                }
+                token.setLength(0);
+            }
+        }
+        return tokens;
+    }
+
+    // writeUTF is limited to 64 KB of encoded text
+    private static String truncate(String value) {
+        return value.length() > 1000 ? value.substring(0, 1000) : value;
+    }
+
+    private record DocumentInfo(String key, String title, String source, String url, int length) {
+    }
+
+    private record BufferedDocument(String key, String title, String source, String url, int length,
+                                    Map<String, Integer> frequencies) {
+        DocumentInfo info() {
+            return new DocumentInfo(key, title, source, url, length);
+        }
+    }
+
+    private static final class Segment {
+        final Path file;
+        final int documentCount;
+        final String[] keys;
+        final String[] titles;
+        final String[] sources;
+        final String[] urls;
+        final int[] lengths;
+        final Map<String, Integer> documentIds;
+        final String[] terms;
+        final int[] documentFrequencies;
+        final int[] postingOffsets;
+        byte[] postings;
+        final BitSet superseded = new BitSet();
+
+        Segment(Path file, int documentCount, int termCount) {
+            this.file = file;
+            this.documentCount = documentCount;
+            this.keys = new String[documentCount];
+            this.titles = new String[documentCount];
+            this.sources = new String[documentCount];
+            this.urls = new String[documentCount];
+            this.lengths = new int[documentCount];
+            this.documentIds = new HashMap<>(documentCount * 2);
+            this.terms = new String[termCount];
+            this.documentFrequencies = new int[termCount];
+            this.postingOffsets = new int[termCount + 1];
+        }
+
+        int documentId(String key) {
+            return documentIds.get(key);
+        }
+
+        DocumentInfo info(int doc) {
+            return new DocumentInfo(keys[doc], titles[doc], sources[doc], urls[doc], lengths[doc]);
+        }
+
+        int documentFrequency(String term) {
+            int t = Arrays.binarySearch(terms, term);
+            return t < 0 ? 0 : documentFrequencies[t];
+        }
+
+        PostingsReader postings(int term) {
+            return new PostingsReader(postings, postingOffsets[term], postingOffsets[term + 1]);
+        }
+
+        void score(String term, double idf, double averageLength, float[] scores) {
+            int t = Arrays.binarySearch(terms, term);
+            if (t < 0) {
+                return;
+            }
+            PostingsReader reader = postings(t);
+            while (reader.next()) {
+                scores[reader.doc] += (float) bm25(idf, reader.frequency, lengths[reader.doc], averageLength);
+            }
+        }
+    }
+
+    private static final class PostingsReader {
+        private final byte[] data;
+        private int position;
+        private final int end;
+        int doc;
+        int frequency;
+
+        PostingsReader(byte[] data, int start, int end) {
+            this.data = data;
+            this.position = start;
+            this.end = end;
+        }
+
+        boolean next() {
+            if (position >= end) {
+                return false;
+            }
+            doc += readVarInt();
+            frequency = readVarInt();
+            return true;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                value |= (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+
+    // Growable (doc id, frequency) pairs
+    private static final class IntList {
+        int[] values = new int[8];
+        int size;
+
+        void add(int doc, int frequency) {
+            if (size + 2 > values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[size++] = doc;
+            values[size++] = frequency;
+        }
+    }
+
+    private static final class VarIntBuffer {
+        private byte[] bytes = new byte[1024];
+        private int size;
+
+        void write(int value) {
+            if (size + 5 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            while ((value & ~0x7f) != 0) {
+                bytes[size++] = (byte) ((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void writeTo(OutputStream out) throws IOException {
+            out.write(bytes, 0, size);
+        }
+    }
+}
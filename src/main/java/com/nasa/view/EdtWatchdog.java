@@ -0,0 +1,205 @@
+package com.nasa.view;
+
+import com.nasa.metrics.Metrics;
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+// Flags events that hold the EDT for longer than a threshold (nasa.edt.stall.ms, 0 turns
+// the watchdog off). It replaces the system EventQueue so every event is timed into the
+// edt-dispatch histogram. While an event runs past the threshold a monitor thread samples
+// the EDT's stack, and once it returns the stall is logged with the stack seen most often.
+// Time spent in a nested event loop (a modal dialog), dispatching or waiting, is not held
+// against the event that opened it.
+public class EdtWatchdog extends EventQueue {
+    private static final Logger LOGGER = Logger.getLogger(EdtWatchdog.class.getName());
+    private static final long DEFAULT_THRESHOLD_MILLIS = 200;
+    // A stall this long is reported while it is still going on, in case it never ends
+    private static final long HANG_REPORT_MILLIS = 5000;
+    private static final int MAX_SAMPLES = 200;
+    private static final int REPORTED_FRAMES = 25;
+
+    private final long thresholdNanos;
+    private final ScheduledExecutorService monitor;
+    private final LongAdder stalls = new LongAdder();
+    // Written on the EDT, read by the monitor; dispatchStart is 0 while the EDT is idle
+    private volatile Thread dispatchThread;
+    private volatile long dispatchId;
+    private volatile long dispatchStart;
+    // EDT only
+    private long nextId;
+    private int depth;
+    // Time spent in events dispatched from inside the current one
+    private long nestedNanos;
+    // Monitor thread only
+    private final List<StackTraceElement[]> samples = new ArrayList<>();
+    private long sampledId = -1;
+    private boolean hangReported;
+
+    public EdtWatchdog(long thresholdMillis) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.monitor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "edt-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sampleNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(10), thresholdNanos / 4);
+        monitor.scheduleAtFixedRate(this::sample, sampleNanos, sampleNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Null when turned off
+    public static EdtWatchdog install() {
+        long threshold = Long.getLong("nasa.edt.stall.ms", DEFAULT_THRESHOLD_MILLIS);
+        if (threshold <= 0) {
+            return null;
+        }
+        EdtWatchdog watchdog = new EdtWatchdog(threshold);
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(watchdog);
+        return watchdog;
+    }
+
+    public long getStallCount() {
+        return stalls.sum();
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        long outerNested = nestedNanos;
+        nestedNanos = 0;
+        depth++;
+        long start = System.nanoTime();
+        long id = ++nextId;
+        dispatchThread = Thread.currentThread();
+        dispatchId = id;
+        dispatchStart = start;
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            long now = System.nanoTime();
+            long own = now - start - nestedNanos;
+            nestedNanos = outerNested + (now - start);
+            depth--;
+            // Back inside an outer event, which gets a fresh sampling window
+            dispatchId = ++nextId;
+            dispatchStart = depth > 0 ? now : 0;
+            Metrics.DISPATCH.record(own);
+            if (own >= thresholdNanos) {
+                stalls.increment();
+                String description = describe(event);
+                monitor.execute(() -> report(id, description, own));
+            }
+        }
+    }
+
+    // A nested loop waiting for its next event leaves the EDT idle, so the wait does not
+    // count against the event that started the loop either
+    @Override
+    public AWTEvent getNextEvent() throws InterruptedException {
+        if (depth == 0 || Thread.currentThread() != dispatchThread) {
+            return super.getNextEvent();
+        }
+        long start = System.nanoTime();
+        dispatchStart = 0;
+        try {
+            return super.getNextEvent();
+        } finally {
+            long now = System.nanoTime();
+            nestedNanos += now - start;
+            dispatchId = ++nextId;
+            dispatchStart = now;
+        }
+    }
+
+    private void sample() {
+        long id = dispatchId;
+        long start = dispatchStart;
+        Thread thread = dispatchThread;
+        if (start == 0 || thread == null || id != dispatchId) {
+            return;
+        }
+        long blocked = System.nanoTime() - start;
+        if (blocked < thresholdNanos) {
+            return;
+        }
+        if (id != sampledId) {
+            samples.clear();
+            sampledId = id;
+            hangReported = false;
+        }
+        StackTraceElement[] stack = thread.getStackTrace();
+        if (samples.size() < MAX_SAMPLES) {
+            samples.add(stack);
+        }
+        if (!hangReported && blocked >= TimeUnit.MILLISECONDS.toNanos(HANG_REPORT_MILLIS)) {
+            hangReported = true;
+            LOGGER.warning("EDT blocked for " + TimeUnit.NANOSECONDS.toMillis(blocked) + " ms and counting:"
+                + format(stack));
+        }
+    }
+
+    private void report(long id, String description, long nanos) {
+        List<StackTraceElement[]> stacks = id == sampledId ? new ArrayList<>(samples) : List.of();
+        if (id == sampledId) {
+            samples.clear();
+            sampledId = -1;
+        }
+        StringBuilder message = new StringBuilder("EDT blocked for ")
+            .append(TimeUnit.NANOSECONDS.toMillis(nanos)).append(" ms dispatching ").append(description);
+        if (stacks.isEmpty()) {
+            message.append(" (returned before it could be sampled)");
+        } else {
+            message.append(", most frequent of ").append(stacks.size()).append(" stack samples:")
+                .append(format(mostFrequent(stacks)));
+        }
+        LOGGER.warning(message.toString());
+    }
+
+    private static StackTraceElement[] mostFrequent(List<StackTraceElement[]> stacks) {
+        Map<List<StackTraceElement>, Integer> counts = new HashMap<>();
+        StackTraceElement[] best = stacks.get(0);
+        int bestCount = 0;
+        for (StackTraceElement[] stack : stacks) {
+            List<StackTraceElement> top = Arrays.asList(stack).subList(0, Math.min(stack.length, REPORTED_FRAMES));
+            int count = counts.merge(top, 1, Integer::sum);
+            if (count > bestCount) {
+                bestCount = count;
+                best = stack;
+            }
+        }
+        return best;
+    }
+
+    private static String format(StackTraceElement[] stack) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < Math.min(stack.length, REPORTED_FRAMES); i++) {
+            text.append("\n\tat ").append(stack[i]);
+        }
+        if (stack.length > REPORTED_FRAMES) {
+            text.append("\n\t... ").append(stack.length - REPORTED_FRAMES).append(" more");
+        }
+        return text.toString();
+    }
+
+    private static String describe(AWTEvent event) {
+        String params = event.paramString();
+        if (params.length() > 160) {
+            params = params.substring(0, 160) + "...";
+        }
+        return event.getClass().getSimpleName() + "[" + params + "] on "
+            + event.getSource().getClass().getName();
+    }
+
+    public void shutdown() {
+        monitor.shutdownNow();
+    }
+}
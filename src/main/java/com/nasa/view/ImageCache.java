@@ -0,0 +1,128 @@
+package com.nasa.view;
+
+import java.awt.image.BufferedImage;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// LRU cache of decoded, display-sized images, bounded by pixel bytes. Values are soft
+// references, so the collector can reclaim them under memory pressure before an OOM.
+public class ImageCache {
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(32, 0.75f, true);
+    private final ReferenceQueue<BufferedImage> collectedQueue = new ReferenceQueue<>();
+    private long totalBytes;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long collected;
+
+    public ImageCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    public static String key(String url, int width, int height) {
+        return url + "@" + width + "x" + height;
+    }
+
+    public synchronized BufferedImage get(String key) {
+        drainCollected();
+        Entry entry = entries.get(key);
+        BufferedImage image = entry != null ? entry.get() : null;
+        if (image == null) {
+            if (entry != null) {
+                remove(key, entry);
+                collected++;
+            }
+            misses++;
+            return null;
+        }
+        hits++;
+        return image;
+    }
+
+    public synchronized void put(String key, BufferedImage image) {
+        drainCollected();
+        long bytes = sizeOf(image);
+        if (bytes > maxBytes) {
+            return;
+        }
+        Entry previous = entries.put(key, new Entry(key, image, bytes, collectedQueue));
+        if (previous != null) {
+            totalBytes -= previous.bytes;
+            previous.clear();
+        }
+        totalBytes += bytes;
+
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Entry eldest = iterator.next().getValue();
+            iterator.remove();
+            totalBytes -= eldest.bytes;
+            eldest.clear();
+            evictions++;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.values().forEach(Entry::clear);
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    public synchronized Stats stats() {
+        drainCollected();
+        return new Stats(hits, misses, evictions, collected, entries.size(), totalBytes);
+    }
+
+    // Forget entries whose images the GC has already reclaimed
+    private void drainCollected() {
+        Entry entry;
+        while ((entry = (Entry) collectedQueue.poll()) != null) {
+            if (entries.get(entry.key) == entry) {
+                remove(entry.key, entry);
+                collected++;
+            }
+        }
+    }
+
+    private void remove(String key, Entry entry) {
+        entries.remove(key);
+        totalBytes -= entry.bytes;
+    }
+
+    private static long sizeOf(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight()
+            * Math.max(1, image.getColorModel().getPixelSize() / 8);
+    }
+
+    private static final class Entry extends SoftReference<BufferedImage> {
+        final String key;
+        final long bytes;
+
+        Entry(String key, BufferedImage image, long bytes, ReferenceQueue<BufferedImage> queue) {
+            super(image, queue);
+            this.key = key;
+            this.bytes = bytes;
+        }
+    }
+
+    public record Stats(long hits, long misses, long evictions, long collected, int entries, long bytes) {
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d misses=%d evictions=%d collected=%d entries=%d bytes=%d hitRate=%.1f%%",
+                hits, misses, evictions, collected, entries, bytes, hitRate() * 100);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.nasa.view;
+
+import com.nasa.metrics.Metrics;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+// Decodes images straight to (roughly) display size using ImageReader source subsampling,
+// so a 2048x2048 EPIC PNG never has to exist at full resolution on the heap
+public final class ImageDecoder {
+    // Extra subsampling applied for the quick first pass
+    private static final int PREVIEW_FACTOR = 4;
+
+    private ImageDecoder() {
+    }
+
+    // Fast, low quality decode meant to be shown while the real pass runs
+    public static BufferedImage decodePreview(byte[] data, int maxWidth, int maxHeight) throws IOException {
+        return decode(data, maxWidth, maxHeight, PREVIEW_FACTOR, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+    }
+
+    public static BufferedImage decode(byte[] data, int maxWidth, int maxHeight) throws IOException {
+        return decode(data, maxWidth, maxHeight, 1, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+    }
+
+    // Size the image will have on screen, preserving aspect ratio
+    public static Dimension fit(int width, int height, int maxWidth, int maxHeight) {
+        double scale = Math.min((double) maxWidth / width, (double) maxHeight / height);
+        return new Dimension(Math.max(1, (int) (width * scale)), Math.max(1, (int) (height * scale)));
+    }
+
+    private static BufferedImage decode(byte[] data, int maxWidth, int maxHeight, int extraSubsampling,
+                                        Object interpolation) throws IOException {
+        long start = System.nanoTime();
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                Dimension target = fit(width, height, maxWidth, maxHeight);
+
+                // Largest step that still decodes at or above the target size; the preview
+                // pass skips further and is stretched back up cheaply
+                int subsampling = Math.max(1, Math.min(width / target.width, height / target.height));
+                subsampling = Math.min(subsampling * extraSubsampling, Math.min(width, height));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage decoded = reader.read(0, param);
+
+                if (decoded.getWidth() == target.width && decoded.getHeight() == target.height) {
+                    return decoded;
+                }
+                return scale(decoded, target, interpolation);
+            } finally {
+                reader.dispose();
+            }
+        } finally {
+            Metrics.DECODE.recordSince(start);
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, Dimension target, Object interpolation) {
+        int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage scaled = new BufferedImage(target.width, target.height, type);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, target.width, target.height, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+}
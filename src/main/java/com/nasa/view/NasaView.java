@@ -1,29 +1,94 @@
 package com.nasa.view;
 
+import com.nasa.metrics.CacheGauge;
+import com.nasa.metrics.Metrics;
+import com.nasa.model.EpicCollection;
 import java.awt.*;
 import java.awt.event.ActionListener;
-import java.net.URL;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 
 public class NasaView extends JFrame {
+    private static final int DEFAULT_MEDIA_WIDTH = 800;
+    private static final int DEFAULT_MEDIA_HEIGHT = 500;
+    private static final long DEFAULT_IMAGE_CACHE_MB = 128;
+    private static final int RESIZE_DEBOUNCE_MS = 200;
+    private static final int DEFAULT_THUMBNAIL_THREADS = 6;
+    // Time-lapse frames held decoded at once, download/decode threads, and playback rate
+    private static final int DEFAULT_TIMELAPSE_FRAMES = 24;
+    private static final int DEFAULT_TIMELAPSE_THREADS = 4;
+    private static final int DEFAULT_TIMELAPSE_FPS = 8;
+
     private JTextArea resultArea;
     private JComboBox<String> dateSelector;
+    private JButton apodPreviousButton;
+    private JButton apodNextButton;
     private JButton apodButton;
     private JButton marsRoverButton;
     private JButton neoButton;
     private JButton imageLibraryButton; 
     private JButton epicButton;
+    private JButton epicPlayButton;
+    private JComboBox<String> epicCollectionSelector;
+    private JComboBox<Integer> epicDaysSelector;
     private JTextField searchField;
+    private JTextField neoStartField;
+    private JTextField neoEndField;
+    private JTextField neoMinDiameterField;
+    private JTextField neoMaxDistanceField;
+    private JComboBox<String> neoSortSelector;
+    private JCheckBox neoHazardousOnly;
+    private JCheckBox searchSavedOnly;
+    private JButton neoFilterButton;
     private JPanel contentPanel;
     private CardLayout cardLayout;
     private JLabel imageLabel;
     private JPanel mediaPanel;
+    private JPanel imageArea;
+    private ThumbnailGallery gallery;
+    private String galleryOwner;
+    private JComboBox<String> roverSelector;
+    private JTextField solField;
+    private JComboBox<String> cameraSelector;
+    private ImageLoader imageLoader;
+    private final ImageCache imageCache = new ImageCache(
+        Long.getLong("nasa.imageCache.mb", DEFAULT_IMAGE_CACHE_MB) * 1024 * 1024);
+    private String currentImageUrl;
+    private Timer resizeTimer;
+    private final StringBuilder pendingResultText = new StringBuilder();
+    private boolean pendingResultReplace;
+    private boolean resultFlushScheduled;
+    // Feature panels are built the first time their card is needed. Hooks registered for a
+    // panel's controls before then run right after it is built, and the getters below are
+    // only reached from a panel's own listeners, so the panel exists by then. EDT only.
+    private final Map<String, Runnable> panelBuilders = new HashMap<>();
+    private final Map<String, List<Runnable>> panelHooks = new HashMap<>();
+    private final Set<String> builtPanels = new HashSet<>();
+
+    // Supplies raw image bytes for a URL; the controller routes these through its
+    // transport and caches, the view never opens connections itself
+    public interface ImageLoader {
+        byte[] load(String url) throws Exception;
+    }
 
     public NasaView() {
         setupMainFrame();
         setupComponents();
         setupLayout();
+        Metrics.registerCache("image-cache", () -> {
+            ImageCache.Stats stats = imageCache.stats();
+            return new CacheGauge.Reading(stats.hits(), stats.misses(), stats.toString());
+        });
     }
 
     private void setupMainFrame() {
@@ -68,19 +133,42 @@ public class NasaView extends JFrame {
         cardLayout = new CardLayout();
         contentPanel.setLayout(cardLayout);
 
-        // Media Panel for Images and Videos
+        // Media Panel for Images and Videos, with an optional thumbnail gallery on the left
         mediaPanel = new JPanel(new BorderLayout());
         mediaPanel.setBorder(new EmptyBorder(10, 10, 10, 10));
+        imageArea = new JPanel(new BorderLayout());
         imageLabel = new JLabel();
         imageLabel.setHorizontalAlignment(JLabel.CENTER);
-        mediaPanel.add(imageLabel, BorderLayout.CENTER);
+        imageArea.add(imageLabel, BorderLayout.CENTER);
+        mediaPanel.add(imageArea, BorderLayout.CENTER);
+
+        gallery = new ThumbnailGallery(Integer.getInteger("nasa.thumbnails.threads", DEFAULT_THUMBNAIL_THREADS));
+        gallery.setSelectionListener(item -> displayMedia(item.getMediaUrl(), item.isVideo()));
+        gallery.setVisible(false);
+        mediaPanel.add(gallery, BorderLayout.WEST);
+
+        // Re-fit the current image once the user stops resizing; the decoded cache and
+        // the disk cache make this cheap
+        resizeTimer = new Timer(RESIZE_DEBOUNCE_MS, e -> {
+            if (currentImageUrl != null) {
+                displayMedia(currentImageUrl, false);
+            }
+        });
+        resizeTimer.setRepeats(false);
+        imageArea.addComponentListener(new java.awt.event.ComponentAdapter() {
+            @Override
+            public void componentResized(java.awt.event.ComponentEvent evt) {
+                resizeTimer.restart();
+            }
+        });
 
-        // Setup different feature panels
-        setupAPODPanel();
-        setupMarsRoverPanel();
-        setupNEOPanel();
-        setupImageLibraryPanel();
-        setupEPICPanel();
+        // Only the APOD panel is on screen at first; the others are built on first use
+        panelBuilders.put("APOD", this::setupAPODPanel);
+        panelBuilders.put("MARS", this::setupMarsRoverPanel);
+        panelBuilders.put("NEO", this::setupNEOPanel);
+        panelBuilders.put("LIBRARY", this::setupImageLibraryPanel);
+        panelBuilders.put("EPIC", this::setupEPICPanel);
+        ensurePanel("APOD");
 
         // Result Area
         resultArea = new JTextArea(10, 80);
@@ -135,26 +223,65 @@ public class NasaView extends JFrame {
         panel.add(new JLabel("Select Date: "));
         dateSelector = new JComboBox<>(new String[]{"Today", "Yesterday", "Custom Date..."});
         panel.add(dateSelector);
+        apodPreviousButton = new JButton("< Previous Day");
+        panel.add(apodPreviousButton);
+        apodNextButton = new JButton("Next Day >");
+        panel.add(apodNextButton);
         contentPanel.add(panel, "APOD");
     }
 
     private void setupMarsRoverPanel() {
-        JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        JPanel panel = new JPanel(new GridLayout(0, 2, 5, 5));
         panel.setBorder(new EmptyBorder(10, 10, 10, 10));
         panel.add(new JLabel("Rover: "));
-        JComboBox<String> roverSelector = new JComboBox<>(new String[]{"Curiosity", "Perseverance", "Opportunity", "Spirit"});
+        roverSelector = new JComboBox<>(new String[]{"Curiosity", "Perseverance", "Opportunity", "Spirit"});
         panel.add(roverSelector);
-        contentPanel.add(panel, "MARS");
+        panel.add(new JLabel("Sol: "));
+        solField = new JTextField("1000", 10);
+        solField.setToolTipText("Martian day since landing");
+        panel.add(solField);
+        panel.add(new JLabel("Camera: "));
+        cameraSelector = new JComboBox<>(new String[]{
+            "All", "FHAZ", "RHAZ", "MAST", "CHEMCAM", "MAHLI", "MARDI", "NAVCAM", "PANCAM", "MINITES"
+        });
+        panel.add(cameraSelector);
+
+        JPanel wrapper = new JPanel(new BorderLayout());
+        wrapper.add(panel, BorderLayout.NORTH);
+        contentPanel.add(wrapper, "MARS");
     }
 
     private void setupNEOPanel() {
-        JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        JPanel panel = new JPanel(new GridLayout(0, 2, 5, 5));
         panel.setBorder(new EmptyBorder(10, 10, 10, 10));
         panel.add(new JLabel("Start Date: "));
-        panel.add(new JTextField(10));
+        neoStartField = new JTextField(10);
+        neoStartField.setToolTipText("YYYY-MM-DD, defaults to today");
+        panel.add(neoStartField);
         panel.add(new JLabel("End Date: "));
-        panel.add(new JTextField(10));
-        contentPanel.add(panel, "NEO");
+        neoEndField = new JTextField(10);
+        neoEndField.setToolTipText("YYYY-MM-DD, defaults to a week after the start date");
+        panel.add(neoEndField);
+
+        // Filters over the already loaded approaches, no new request is made
+        panel.add(new JLabel("Min Diameter (m): "));
+        neoMinDiameterField = new JTextField(10);
+        panel.add(neoMinDiameterField);
+        panel.add(new JLabel("Max Distance (LD): "));
+        neoMaxDistanceField = new JTextField(10);
+        neoMaxDistanceField.setToolTipText("Closest approach in lunar distances");
+        panel.add(neoMaxDistanceField);
+        panel.add(new JLabel("Sort By: "));
+        neoSortSelector = new JComboBox<>(new String[]{"Date", "Velocity", "Diameter", "Miss Distance"});
+        panel.add(neoSortSelector);
+        neoHazardousOnly = new JCheckBox("Hazardous only");
+        panel.add(neoHazardousOnly);
+        neoFilterButton = new JButton("Apply Filter");
+        panel.add(neoFilterButton);
+
+        JPanel wrapper = new JPanel(new BorderLayout());
+        wrapper.add(panel, BorderLayout.NORTH);
+        contentPanel.add(wrapper, "NEO");
     }
 
     private void setupImageLibraryPanel() {
@@ -163,6 +290,9 @@ public class NasaView extends JFrame {
         panel.add(new JLabel("Search: "));
         searchField = new JTextField(30);
         panel.add(searchField);
+        searchSavedOnly = new JCheckBox("Saved only");
+        searchSavedOnly.setToolTipText("Search APODs and Image Library results already fetched, without the network");
+        panel.add(searchSavedOnly);
         contentPanel.add(panel, "LIBRARY");
     }
 
@@ -170,8 +300,13 @@ public class NasaView extends JFrame {
         JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         panel.setBorder(new EmptyBorder(10, 10, 10, 10));
         panel.add(new JLabel("View: "));
-        JComboBox<String> viewSelector = new JComboBox<>(new String[]{"Natural", "Enhanced"});
-        panel.add(viewSelector);
+        epicCollectionSelector = new JComboBox<>(new String[]{"Natural", "Enhanced"});
+        panel.add(epicCollectionSelector);
+        panel.add(new JLabel("Time-lapse days: "));
+        epicDaysSelector = new JComboBox<>(new Integer[]{1, 3, 7, 14, 31});
+        panel.add(epicDaysSelector);
+        epicPlayButton = new JButton("Play Time-lapse");
+        panel.add(epicPlayButton);
         contentPanel.add(panel, "EPIC");
     }
 
@@ -179,68 +314,207 @@ public class NasaView extends JFrame {
         // Additional layout setup if needed
     }
 
+    private void ensurePanel(String card) {
+        if (builtPanels.add(card)) {
+            panelBuilders.get(card).run();
+            List<Runnable> hooks = panelHooks.remove(card);
+            if (hooks != null) {
+                hooks.forEach(Runnable::run);
+            }
+            contentPanel.revalidate();
+        }
+    }
+
+    // Runs the hook now if the panel exists, otherwise once it is built
+    private void onPanel(String card, Runnable hook) {
+        if (builtPanels.contains(card)) {
+            hook.run();
+        } else {
+            panelHooks.computeIfAbsent(card, k -> new ArrayList<>()).add(hook);
+        }
+    }
+
+    // The feature buttons stay disabled until a controller is attached
+    public void setControlsEnabled(boolean enabled) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> setControlsEnabled(enabled));
+            return;
+        }
+        for (JButton button : new JButton[]{apodButton, marsRoverButton, neoButton, imageLibraryButton, epicButton}) {
+            button.setEnabled(enabled);
+        }
+    }
+
+    private void showCard(String card) {
+        ensurePanel(card);
+        cardLayout.show(contentPanel, card);
+        // The gallery belongs to the view that filled it
+        gallery.setVisible(card.equals(galleryOwner) && gallery.getItemCount() > 0);
+        mediaPanel.revalidate();
+    }
+
     public void addAPODListener(ActionListener listener) {
         apodButton.addActionListener(e -> {
-            cardLayout.show(contentPanel, "APOD");
+            showCard("APOD");
             listener.actionPerformed(e);
         });
     }
 
+    public void addApodDateListener(ActionListener listener) {
+        onPanel("APOD", () -> dateSelector.addActionListener(listener));
+    }
+
+    public void addApodPreviousListener(ActionListener listener) {
+        onPanel("APOD", () -> apodPreviousButton.addActionListener(listener));
+    }
+
+    public void addApodNextListener(ActionListener listener) {
+        onPanel("APOD", () -> apodNextButton.addActionListener(listener));
+    }
+
     public void addMarsRoverListener(ActionListener listener) {
         marsRoverButton.addActionListener(e -> {
-            cardLayout.show(contentPanel, "MARS");
+            showCard("MARS");
             listener.actionPerformed(e);
         });
     }
 
     public void addNEOListener(ActionListener listener) {
         neoButton.addActionListener(e -> {
-            cardLayout.show(contentPanel, "NEO");
+            showCard("NEO");
             listener.actionPerformed(e);
         });
     }
 
+    public void addNEOFilterListener(ActionListener listener) {
+        onPanel("NEO", () -> neoFilterButton.addActionListener(listener));
+    }
+
     public void addImageLibraryListener(ActionListener listener) {
         imageLibraryButton.addActionListener(e -> {
-            cardLayout.show(contentPanel, "LIBRARY");
+            showCard("LIBRARY");
             listener.actionPerformed(e);
         });
     }
 
+    // Fires on every edit of the search field, on the EDT; debouncing is up to the listener
+    public void addSearchTypingListener(Runnable listener) {
+        onPanel("LIBRARY", () -> searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                listener.run();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                listener.run();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                // Attribute changes only
+            }
+        }));
+    }
+
+    // Enter in the search field
+    public void addSearchSubmitListener(ActionListener listener) {
+        onPanel("LIBRARY", () -> searchField.addActionListener(listener));
+    }
+
     public void addEPICListener(ActionListener listener) {
         epicButton.addActionListener(e -> {
-            cardLayout.show(contentPanel, "EPIC");
+            showCard("EPIC");
             listener.actionPerformed(e);
         });
     }
 
+    public void addEPICPlayListener(ActionListener listener) {
+        onPanel("EPIC", () -> epicPlayButton.addActionListener(listener));
+    }
+
+    // Starts a new gallery for the given view card, replacing any previous results
+    public void showGallery(String owner, List<ThumbnailGallery.Item> items, Runnable moreItemsListener) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> showGallery(owner, items, moreItemsListener));
+            return;
+        }
+        galleryOwner = owner;
+        gallery.clear();
+        gallery.setMoreItemsListener(moreItemsListener);
+        gallery.addItems(items);
+        gallery.setVisible(!items.isEmpty());
+        mediaPanel.revalidate();
+    }
+
+    public void appendGallery(String owner, List<ThumbnailGallery.Item> items) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> appendGallery(owner, items));
+            return;
+        }
+        if (owner.equals(galleryOwner)) {
+            gallery.addItems(items);
+        }
+    }
+
+    public void setImageLoader(ImageLoader imageLoader) {
+        this.imageLoader = imageLoader;
+        gallery.setImageLoader(imageLoader);
+    }
+
     public void displayMedia(String mediaUrl, boolean isVideo) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> displayMedia(mediaUrl, isVideo));
+            return;
+        }
         try {
             if (isVideo) {
                 displayVideo(mediaUrl);
             } else {
-                // Load image in a background thread
-                SwingWorker<ImageIcon, Void> worker = new SwingWorker<>() {
+                // Decode to 90% of the panel, falling back to a sane size before first layout
+                int maxWidth = (int) ((imageArea.getWidth() > 0 ? imageArea.getWidth() : DEFAULT_MEDIA_WIDTH) * 0.9);
+                int maxHeight = (int) ((imageArea.getHeight() > 0 ? imageArea.getHeight() : DEFAULT_MEDIA_HEIGHT) * 0.9);
+                currentImageUrl = mediaUrl;
+                String cacheKey = ImageCache.key(mediaUrl, maxWidth, maxHeight);
+                BufferedImage cached = imageCache.get(cacheKey);
+                if (cached != null) {
+                    displayImage(cached);
+                    return;
+                }
+
+                // Download and decode in a background thread: a quick subsampled preview is
+                // published first, then the full quality pass replaces it
+                SwingWorker<BufferedImage, BufferedImage> worker = new SwingWorker<>() {
                     @Override
-                    protected ImageIcon doInBackground() {
-                        try {
-                            URL url = new URL(mediaUrl);
-                            return new ImageIcon(url);
-                        } catch (Exception e) {
-                            displayData("Error loading image: " + e.getMessage());
-                            return null;
+                    protected BufferedImage doInBackground() throws Exception {
+                        if (imageLoader == null) {
+                            throw new IllegalStateException("No image loader configured");
+                        }
+                        byte[] data = imageLoader.load(mediaUrl);
+                        publish(ImageDecoder.decodePreview(data, maxWidth, maxHeight));
+                        BufferedImage image = ImageDecoder.decode(data, maxWidth, maxHeight);
+                        imageCache.put(cacheKey, image);
+                        return image;
+                    }
+
+                    @Override
+                    protected void process(List<BufferedImage> previews) {
+                        if (!isDone() && mediaUrl.equals(currentImageUrl)) {
+                            displayImage(previews.get(previews.size() - 1));
                         }
                     }
 
                     @Override
                     protected void done() {
                         try {
-                            ImageIcon icon = get();
-                            if (icon != null) {
-                                displayImage(icon);
+                            BufferedImage image = get();
+                            // A newer image may have been requested while this one decoded
+                            if (mediaUrl.equals(currentImageUrl)) {
+                                displayImage(image);
                             }
                         } catch (Exception e) {
-                            displayData("Error displaying image: " + e.getMessage());
+                            Throwable cause = e.getCause() != null ? e.getCause() : e;
+                            displayData("Error loading image: " + cause.getMessage());
                         }
                     }
                 };
@@ -251,9 +525,35 @@ public class NasaView extends JFrame {
         }
     }
 
+    // Replaces the media area with a looping player; it stops by itself once anything else
+    // is displayed there
+    public void playTimeLapse(List<TimeLapsePlayer.Frame> frames) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> playTimeLapse(frames));
+            return;
+        }
+        currentImageUrl = null;
+        int width = (int) ((imageArea.getWidth() > 0 ? imageArea.getWidth() : DEFAULT_MEDIA_WIDTH) * 0.9);
+        int height = (int) ((imageArea.getHeight() > 0 ? imageArea.getHeight() : DEFAULT_MEDIA_HEIGHT) * 0.9);
+        TimeLapsePlayer player = new TimeLapsePlayer(frames, imageLoader, width, height,
+            Integer.getInteger("nasa.timelapse.frames", DEFAULT_TIMELAPSE_FRAMES),
+            Integer.getInteger("nasa.timelapse.threads", DEFAULT_TIMELAPSE_THREADS),
+            Integer.getInteger("nasa.timelapse.fps", DEFAULT_TIMELAPSE_FPS));
+        imageArea.removeAll();
+        imageArea.add(player, BorderLayout.CENTER);
+        imageArea.revalidate();
+        imageArea.repaint();
+        player.start();
+    }
+
     public void displayVideo(String videoUrl) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> displayVideo(videoUrl));
+            return;
+        }
+        currentImageUrl = null;
         // Clear any existing content
-        mediaPanel.removeAll();
+        imageArea.removeAll();
         
         // Create a clickable link to the video
         JEditorPane editorPane = new JEditorPane();
@@ -277,43 +577,27 @@ public class NasaView extends JFrame {
             }
         });
         
-        mediaPanel.add(editorPane, BorderLayout.CENTER);
-        mediaPanel.revalidate();
-        mediaPanel.repaint();
+        imageArea.add(editorPane, BorderLayout.CENTER);
+        imageArea.revalidate();
+        imageArea.repaint();
     }
 
-    public void displayImage(ImageIcon originalImage) {
+    // Expects an image already decoded to display size, see ImageDecoder
+    public void displayImage(BufferedImage image) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> displayImage(image));
+            return;
+        }
         try {
             // Clear any existing content
-            mediaPanel.removeAll();
+            imageArea.removeAll();
             
-            if (originalImage != null && originalImage.getIconWidth() > 0) {
-                // Get the original image dimensions
-                int imgWidth = originalImage.getIconWidth();
-                int imgHeight = originalImage.getIconHeight();
-                
-                // Get the panel dimensions
-                int panelWidth = mediaPanel.getWidth();
-                int panelHeight = mediaPanel.getHeight();
-                
-                // Calculate scaling factors
-                double scaleX = (double) panelWidth / imgWidth;
-                double scaleY = (double) panelHeight / imgHeight;
-                double scale = Math.min(scaleX, scaleY) * 0.9; // 90% of available space
-                
-                // Calculate new dimensions
-                int scaledWidth = (int) (imgWidth * scale);
-                int scaledHeight = (int) (imgHeight * scale);
-                
-                // Scale the image
-                Image img = originalImage.getImage();
-                Image scaledImg = img.getScaledInstance(scaledWidth, scaledHeight, Image.SCALE_SMOOTH);
-                
-                // Create and configure the image label
-                if (imageLabel == null) {
-                    imageLabel = new JLabel();
-                }
-                imageLabel.setIcon(new ImageIcon(scaledImg));
+            if (imageLabel == null) {
+                imageLabel = new JLabel();
+            }
+            if (image != null && image.getWidth() > 0) {
+                imageLabel.setText(null);
+                imageLabel.setIcon(new ImageIcon(image));
                 imageLabel.setHorizontalAlignment(JLabel.CENTER);
                 imageLabel.setVerticalAlignment(JLabel.CENTER);
                 
@@ -323,29 +607,123 @@ public class NasaView extends JFrame {
                 scrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
                 scrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED);
                 
-                mediaPanel.add(scrollPane, BorderLayout.CENTER);
+                imageArea.add(scrollPane, BorderLayout.CENTER);
             } else {
-                if (imageLabel == null) {
-                    imageLabel = new JLabel();
-                }
                 imageLabel.setIcon(null);
                 imageLabel.setText("No image available");
                 imageLabel.setHorizontalAlignment(JLabel.CENTER);
-                mediaPanel.add(imageLabel, BorderLayout.CENTER);
+                imageArea.add(imageLabel, BorderLayout.CENTER);
             }
             
-            mediaPanel.revalidate();
-            mediaPanel.repaint();
+            imageArea.revalidate();
+            imageArea.repaint();
         } catch (Exception e) {
             displayData("Error displaying image: " + e.getMessage());
         }
     }
 
     public void displayData(String data) {
-        resultArea.setText(data);
+        queueResultText(data, true);
+    }
+
+    public void appendData(String data) {
+        queueResultText(data, false);
+    }
+
+    // Text updates from any thread are merged and applied in one EDT pass, so a burst of
+    // appends costs one document update instead of one event per call. A replace drops
+    // whatever was still pending, which keeps the order the calls were made in.
+    private void queueResultText(String data, boolean replace) {
+        synchronized (pendingResultText) {
+            if (replace) {
+                pendingResultText.setLength(0);
+                pendingResultReplace = true;
+            }
+            pendingResultText.append(data);
+            if (resultFlushScheduled) {
+                return;
+            }
+            resultFlushScheduled = true;
+        }
+        SwingUtilities.invokeLater(this::flushResultText);
+    }
+
+    private void flushResultText() {
+        String text;
+        boolean replace;
+        synchronized (pendingResultText) {
+            text = pendingResultText.toString();
+            replace = pendingResultReplace;
+            pendingResultText.setLength(0);
+            pendingResultReplace = false;
+            resultFlushScheduled = false;
+        }
+        if (replace) {
+            resultArea.setText(text);
+        } else {
+            resultArea.append(text);
+        }
+    }
+
+    public String getApodDateChoice() {
+        return (String) dateSelector.getSelectedItem();
+    }
+
+    // Null when the dialog is cancelled
+    public String promptForDate(String message, String initial) {
+        return (String) JOptionPane.showInputDialog(this, message, "Choose Date", JOptionPane.QUESTION_MESSAGE,
+            null, null, initial);
+    }
+
+    public String getSelectedRover() {
+        return (String) roverSelector.getSelectedItem();
+    }
+
+    public String getMarsSol() {
+        return solField.getText().trim();
+    }
+
+    public String getMarsCamera() {
+        return (String) cameraSelector.getSelectedItem();
+    }
+
+    public String getNeoStartDate() {
+        return neoStartField.getText().trim();
+    }
+
+    public String getNeoEndDate() {
+        return neoEndField.getText().trim();
+    }
+
+    public String getNeoMinDiameter() {
+        return neoMinDiameterField.getText().trim();
+    }
+
+    public String getNeoMaxDistance() {
+        return neoMaxDistanceField.getText().trim();
+    }
+
+    public String getNeoSortKey() {
+        return (String) neoSortSelector.getSelectedItem();
+    }
+
+    public boolean isNeoHazardousOnly() {
+        return neoHazardousOnly.isSelected();
     }
 
     public String getSearchQuery() {
         return searchField.getText().trim();
     }
+
+    public EpicCollection getEpicCollection() {
+        return EpicCollection.valueOf(((String) epicCollectionSelector.getSelectedItem()).toUpperCase(Locale.ROOT));
+    }
+
+    public int getEpicDays() {
+        return (Integer) epicDaysSelector.getSelectedItem();
+    }
+
+    public boolean isSearchSavedOnly() {
+        return searchSavedOnly.isSelected();
+    }
 }
@@ -0,0 +1,246 @@
+package com.nasa.view;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.BorderFactory;
+import javax.swing.DefaultListModel;
+import javax.swing.ImageIcon;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.ListCellRenderer;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+
+// Scrolling thumbnail grid. JList only renders the visible cells, and a cell's thumbnail
+// is requested the first time it is rendered, so thousands of items cost nothing until
+// the user scrolls to them. Thumbnails load through a small bounded pool.
+public class ThumbnailGallery extends JPanel {
+    private static final Logger LOGGER = Logger.getLogger(ThumbnailGallery.class.getName());
+    public static final int THUMB_WIDTH = 150;
+    public static final int THUMB_HEIGHT = 110;
+    private static final int CELL_WIDTH = THUMB_WIDTH + 12;
+    private static final int CELL_HEIGHT = THUMB_HEIGHT + 30;
+    // Ask for more items while this many cells are still below the viewport
+    private static final int PREFETCH_ROWS = 6;
+    // Decoded thumbnails kept in memory (about 65 KB each); older ones are dropped and
+    // reloaded from the image cache if the user scrolls back to them
+    private static final int MAX_LOADED_THUMBNAILS = 600;
+    // Queued loads for cells further than this from the viewport are skipped
+    private static final int LOAD_MARGIN = 60;
+
+    public static final class Item {
+        private final String title;
+        private final String thumbnailUrl;
+        private final String mediaUrl;
+        private final boolean video;
+        private volatile BufferedImage thumbnail;
+        private volatile boolean requested;
+        private volatile boolean failed;
+
+        public Item(String title, String thumbnailUrl, String mediaUrl, boolean video) {
+            this.title = title;
+            this.thumbnailUrl = thumbnailUrl;
+            this.mediaUrl = mediaUrl;
+            this.video = video;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getMediaUrl() {
+            return mediaUrl;
+        }
+
+        public boolean isVideo() {
+            return video;
+        }
+    }
+
+    private final DefaultListModel<Item> items = new DefaultListModel<>();
+    private final JList<Item> list = new JList<>(items);
+    private final ExecutorService thumbnailPool;
+    private NasaView.ImageLoader imageLoader;
+    private Runnable moreItemsListener;
+    private Consumer<Item> selectionListener;
+    // Bumped on clear() so thumbnails from a previous result set are dropped
+    private final AtomicInteger generation = new AtomicInteger();
+    // Items holding a decoded thumbnail, least recently rendered first; EDT only
+    private final Map<Item, Boolean> loaded = new LinkedHashMap<>(64, 0.75f, true);
+    // Visible index range, published for the thumbnail pool
+    private volatile int firstVisible;
+    private volatile int lastVisible = -1;
+
+    public ThumbnailGallery(int threads) {
+        super(new BorderLayout());
+        AtomicInteger threadCount = new AtomicInteger();
+        this.thumbnailPool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "thumbnail-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        ((ThreadPoolExecutor) thumbnailPool).allowCoreThreadTimeOut(true);
+
+        list.setLayoutOrientation(JList.HORIZONTAL_WRAP);
+        list.setVisibleRowCount(-1);
+        list.setFixedCellWidth(CELL_WIDTH);
+        list.setFixedCellHeight(CELL_HEIGHT);
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setCellRenderer(new ThumbnailRenderer());
+        list.addListSelectionListener(e -> {
+            Item selected = list.getSelectedValue();
+            if (!e.getValueIsAdjusting() && selected != null && selectionListener != null) {
+                selectionListener.accept(selected);
+            }
+        });
+
+        JScrollPane scrollPane = new JScrollPane(list);
+        scrollPane.setBorder(null);
+        scrollPane.getVerticalScrollBar().setUnitIncrement(CELL_HEIGHT / 3);
+        scrollPane.getViewport().addChangeListener(e -> {
+            publishVisibleRange();
+            checkNeedsMore();
+        });
+        add(scrollPane, BorderLayout.CENTER);
+        setPreferredSize(new Dimension(CELL_WIDTH * 2 + 30, 400));
+    }
+
+    public void setImageLoader(NasaView.ImageLoader imageLoader) {
+        this.imageLoader = imageLoader;
+    }
+
+    // Called on the EDT when the user scrolls close to the end of the loaded items
+    public void setMoreItemsListener(Runnable moreItemsListener) {
+        this.moreItemsListener = moreItemsListener;
+    }
+
+    public void setSelectionListener(Consumer<Item> selectionListener) {
+        this.selectionListener = selectionListener;
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        ((ThreadPoolExecutor) thumbnailPool).getQueue().clear();
+        items.clear();
+        loaded.clear();
+    }
+
+    public void addItems(List<Item> newItems) {
+        // One interval event for the whole page rather than one per item
+        items.addAll(newItems);
+        // A short first page may not fill the viewport, so no scroll event would follow
+        SwingUtilities.invokeLater(this::checkNeedsMore);
+    }
+
+    public int getItemCount() {
+        return items.size();
+    }
+
+    private void checkNeedsMore() {
+        if (moreItemsListener == null || items.isEmpty()) {
+            return;
+        }
+        int last = list.getLastVisibleIndex();
+        int columns = Math.max(1, list.getWidth() / CELL_WIDTH);
+        if (last >= items.size() - PREFETCH_ROWS * columns) {
+            moreItemsListener.run();
+        }
+    }
+
+    private void publishVisibleRange() {
+        firstVisible = list.getFirstVisibleIndex();
+        lastVisible = list.getLastVisibleIndex();
+    }
+
+    private void requestThumbnail(Item item, int index) {
+        item.requested = true;
+        publishVisibleRange();
+        int requestGeneration = generation.get();
+        thumbnailPool.execute(() -> {
+            if (requestGeneration != generation.get() || imageLoader == null
+                    || (lastVisible >= 0 && (index < firstVisible - LOAD_MARGIN || index > lastVisible + LOAD_MARGIN))) {
+                // Scrolled past before its turn came; rendering it again will re-request it
+                item.requested = false;
+                return;
+            }
+            try {
+                byte[] data = imageLoader.load(item.thumbnailUrl);
+                item.thumbnail = ImageDecoder.decode(data, THUMB_WIDTH, THUMB_HEIGHT);
+            } catch (Exception e) {
+                LOGGER.log(Level.FINE, "Thumbnail failed for " + item.thumbnailUrl, e);
+                item.failed = true;
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (requestGeneration == generation.get() && item.thumbnail != null) {
+                    retain(item);
+                }
+                if (requestGeneration == generation.get() && index < items.size()) {
+                    Rectangle bounds = list.getCellBounds(index, index);
+                    if (bounds != null) {
+                        list.repaint(bounds);
+                    }
+                }
+            });
+        });
+    }
+
+    private void retain(Item item) {
+        loaded.put(item, Boolean.TRUE);
+        if (loaded.size() > MAX_LOADED_THUMBNAILS) {
+            Iterator<Item> eldest = loaded.keySet().iterator();
+            Item evicted = eldest.next();
+            eldest.remove();
+            evicted.thumbnail = null;
+            evicted.requested = false;
+        }
+    }
+
+    private final class ThumbnailRenderer extends JLabel implements ListCellRenderer<Item> {
+        ThumbnailRenderer() {
+            setHorizontalAlignment(SwingConstants.CENTER);
+            setHorizontalTextPosition(SwingConstants.CENTER);
+            setVerticalTextPosition(SwingConstants.BOTTOM);
+            setBorder(BorderFactory.createEmptyBorder(4, 4, 4, 4));
+            setOpaque(true);
+        }
+
+        @Override
+        public Component getListCellRendererComponent(JList<? extends Item> list, Item item, int index,
+                                                      boolean selected, boolean focused) {
+            BufferedImage thumbnail = item.thumbnail;
+            if (thumbnail != null) {
+                // Marks it as recently shown
+                loaded.get(item);
+            }
+            if (thumbnail == null && !item.requested && !item.failed && item.thumbnailUrl != null) {
+                requestThumbnail(item, index);
+            }
+            setIcon(thumbnail != null ? new ImageIcon(thumbnail) : null);
+            String title = item.title.length() > 22 ? item.title.substring(0, 21) + "…" : item.title;
+            setText(thumbnail == null && !item.failed ? "Loading… " + title : title);
+            setToolTipText(item.title);
+            setBackground(selected ? new Color(200, 215, 240) : list.getBackground());
+            return this;
+        }
+    }
+}
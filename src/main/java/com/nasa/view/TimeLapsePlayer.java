@@ -0,0 +1,252 @@
+package com.nasa.view;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.JComponent;
+import javax.swing.Timer;
+
+// Plays a sequence of images at a fixed frame rate. Frames are downloaded and decoded to
+// display size by a small pool, ahead of the playhead, into a fixed ring of slots: step s
+// of the (looping) playback lives in slot s % capacity, and a slot is refilled only once
+// the playhead has moved past it. Memory therefore stays at capacity decoded frames no
+// matter how long the sequence is, and a sequence that fits in the ring is decoded once.
+//
+// A frame that is not ready when its tick comes holds the previous one rather than
+// skipping, so playback slows down under a slow network instead of jumping.
+public class TimeLapsePlayer extends JComponent {
+    private static final Logger LOGGER = Logger.getLogger(TimeLapsePlayer.class.getName());
+
+    public record Frame(String url, String label) {
+    }
+
+    private final List<Frame> frames;
+    private final NasaView.ImageLoader imageLoader;
+    private final int frameWidth;
+    private final int frameHeight;
+    private final int capacity;
+    private final ExecutorService decoders;
+    private final Timer timer;
+    // Guarded by this. slotFrames holds the frame index each slot has been assigned,
+    // slots the decoded image once it is ready.
+    private final BufferedImage[] slots;
+    private final int[] slotFrames;
+    private final boolean[] slotFailed;
+    private long head = -1;
+    private long scheduledUntil;
+    private int stalls;
+    private int failures;
+    private long shown;
+    // EDT only
+    private BufferedImage current;
+    private String currentLabel;
+    private boolean buffering = true;
+    private volatile boolean stopped;
+
+    public TimeLapsePlayer(List<Frame> frames, NasaView.ImageLoader imageLoader, int frameWidth, int frameHeight,
+                           int capacity, int threads, int framesPerSecond) {
+        this.frames = List.copyOf(frames);
+        this.imageLoader = imageLoader;
+        this.frameWidth = frameWidth;
+        this.frameHeight = frameHeight;
+        this.capacity = Math.max(1, Math.min(capacity, frames.size()));
+        this.slots = new BufferedImage[this.capacity];
+        this.slotFrames = new int[this.capacity];
+        this.slotFailed = new boolean[this.capacity];
+        Arrays.fill(slotFrames, -1);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.decoders = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread thread = new Thread(r, "timelapse-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer = new Timer(1000 / Math.max(1, framesPerSecond), e -> tick());
+        timer.setCoalesce(true);
+
+        setPreferredSize(new Dimension(frameWidth, frameHeight));
+        setBackground(Color.BLACK);
+        setOpaque(true);
+        setToolTipText("Click to pause or resume");
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (timer.isRunning()) {
+                    timer.stop();
+                } else if (!stopped) {
+                    timer.start();
+                }
+                repaint();
+            }
+        });
+    }
+
+    public void start() {
+        if (frames.isEmpty()) {
+            return;
+        }
+        schedule();
+        timer.start();
+    }
+
+    // Also called when the player is taken off screen, so a replaced player never keeps
+    // downloading in the background
+    public void stop() {
+        stopped = true;
+        timer.stop();
+        decoders.shutdownNow();
+        synchronized (this) {
+            Arrays.fill(slots, null);
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        stop();
+        super.removeNotify();
+    }
+
+    public int getFrameCount() {
+        return frames.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // Ticks that found their frame still loading
+    public synchronized int getStalls() {
+        return stalls;
+    }
+
+    public synchronized int getFailures() {
+        return failures;
+    }
+
+    public synchronized long getFramesShown() {
+        return shown;
+    }
+
+    private void tick() {
+        if (stopped) {
+            return;
+        }
+        BufferedImage next;
+        long step;
+        synchronized (this) {
+            step = head + 1;
+            int slot = (int) (step % capacity);
+            if (slots[slot] == null && !slotFailed[slot]) {
+                if (head >= 0) {
+                    stalls++;
+                }
+                next = null;
+            } else {
+                next = slots[slot];
+                head = step;
+                if (next != null) {
+                    shown++;
+                }
+                schedule();
+            }
+        }
+        buffering = next == null && head < step;
+        if (next != null) {
+            current = next;
+            currentLabel = frames.get((int) (step % frames.size())).label();
+        }
+        repaint();
+    }
+
+    // Assigns every step in [head, head + capacity) to its slot and queues the ones whose
+    // slot does not already hold the right frame; called with the lock held
+    private void schedule() {
+        long end = Math.max(head, 0) + capacity;
+        for (long step = Math.max(scheduledUntil, head); step < end; step++) {
+            int slot = (int) (step % capacity);
+            int frame = (int) (step % frames.size());
+            if (slotFrames[slot] == frame) {
+                continue;
+            }
+            slotFrames[slot] = frame;
+            slots[slot] = null;
+            slotFailed[slot] = false;
+            decoders.execute(() -> load(slot, frame));
+        }
+        scheduledUntil = Math.max(scheduledUntil, end);
+    }
+
+    private void load(int slot, int frame) {
+        if (stopped) {
+            return;
+        }
+        BufferedImage image = null;
+        try {
+            byte[] data = imageLoader.load(frames.get(frame).url());
+            image = ImageDecoder.decode(data, frameWidth, frameHeight);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            if (!stopped) {
+                LOGGER.log(Level.FINE, "Could not load time-lapse frame " + frames.get(frame).url(), e);
+            }
+        }
+        synchronized (this) {
+            if (stopped || slotFrames[slot] != frame) {
+                return;
+            }
+            if (image != null) {
+                slots[slot] = image;
+            } else {
+                // Skipped on playback rather than holding the whole sequence up
+                slotFailed[slot] = true;
+                failures++;
+            }
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        g.setColor(getBackground());
+        g.fillRect(0, 0, getWidth(), getHeight());
+        Graphics2D g2 = (Graphics2D) g;
+        if (current != null) {
+            int width = current.getWidth();
+            int height = current.getHeight();
+            if (width > getWidth() || height > getHeight()) {
+                // Only after the window was made smaller than the frames were decoded for
+                Dimension fit = ImageDecoder.fit(width, height, getWidth(), getHeight());
+                g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                width = fit.width;
+                height = fit.height;
+            }
+            g2.drawImage(current, (getWidth() - width) / 2, (getHeight() - height) / 2, width, height, null);
+        }
+
+        String status = currentLabel;
+        if (buffering) {
+            status = current == null ? "Loading frames..." : currentLabel + "  (buffering)";
+        } else if (!timer.isRunning() && currentLabel != null) {
+            status = currentLabel + "  (paused)";
+        }
+        if (status != null) {
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.setFont(getFont() != null ? getFont().deriveFont(Font.BOLD, 14f) : new Font("Arial", Font.BOLD, 14));
+            g2.setColor(Color.WHITE);
+            g2.drawString(status, 12, getHeight() - 12);
+        }
+    }
+}
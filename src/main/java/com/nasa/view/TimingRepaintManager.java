@@ -0,0 +1,27 @@
+package com.nasa.view;
+
+import com.nasa.metrics.Metrics;
+import javax.swing.RepaintManager;
+
+// Every Swing layout pass and paint goes through the RepaintManager on the EDT, so timing
+// its two entry points covers all of them without touching individual components
+public class TimingRepaintManager extends RepaintManager {
+
+    public static void install() {
+        RepaintManager.setCurrentManager(new TimingRepaintManager());
+    }
+
+    @Override
+    public void validateInvalidComponents() {
+        long start = System.nanoTime();
+        super.validateInvalidComponents();
+        Metrics.LAYOUT.recordSince(start);
+    }
+
+    @Override
+    public void paintDirtyRegions() {
+        long start = System.nanoTime();
+        super.paintDirtyRegions();
+        Metrics.PAINT.recordSince(start);
+    }
+}